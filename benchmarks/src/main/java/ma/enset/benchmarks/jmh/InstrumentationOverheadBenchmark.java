@@ -0,0 +1,99 @@
+package ma.enset.benchmarks.jmh;
+
+import ma.enset.benchmarks.support.BillingContext;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import ma.enset.billingservice.service.ProductItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of the per-hop instrumentation on the cheapest hops: a primary-key lookup and a small
+ * service read. {@code off} disables repository observations and tracing, {@code metrics} records
+ * timers only, {@code tracing} also creates and exports a span per call (sampling 1.0).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentationOverheadBenchmark {
+    private static final int BILLS = 1000;
+    private static final int ITEMS_PER_BILL = 10;
+
+    @Param({"off", "metrics", "tracing"})
+    public String instrumentation;
+
+    private BillingContext billingContext;
+    private BillRepository billRepository;
+    private ProductItemService productItemService;
+    private List<Long> billIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] args = switch (instrumentation) {
+            case "off" -> new String[]{"--management.tracing.enabled=false", "--observability.repositories.enabled=false"};
+            case "metrics" -> new String[]{"--management.tracing.enabled=false"};
+            case "tracing" -> new String[]{"--management.tracing.sampling.probability=1.0"};
+            default -> throw new IllegalArgumentException("Unknown instrumentation " + instrumentation);
+        };
+        List<UUID> productIds = IntStream.range(0, ITEMS_PER_BILL).mapToObj(i -> UUID.randomUUID()).toList();
+        billingContext = new BillingContext(productIds, args);
+        billRepository = billingContext.getBean(BillRepository.class);
+        productItemService = billingContext.getBean(ProductItemService.class);
+
+        List<Bill> bills = billRepository.saveAll(IntStream.range(0, BILLS)
+                .mapToObj(i -> Bill.builder().customerId((long) i % 50).billingDate(new Date()).build())
+                .toList());
+        List<ProductItem> items = new ArrayList<>(BILLS * ITEMS_PER_BILL);
+        for (Bill bill : bills) {
+            for (UUID productId : productIds) {
+                items.add(ProductItem.builder().bill(bill).productId(productId).quantity(1).unitPrice(100).build());
+            }
+        }
+        billingContext.getBean(ProductItemRepository.class).saveAll(items);
+        billIds = bills.stream().map(Bill::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        billingContext.close();
+    }
+
+    private long anyBillId() {
+        return billIds.get(ThreadLocalRandom.current().nextInt(billIds.size()));
+    }
+
+    @Benchmark
+    public Optional<Bill> findBillById() {
+        return billRepository.findById(anyBillId());
+    }
+
+    @Benchmark
+    public List<ProductItem> getItemsByBillId() {
+        return productItemService.getItemsByBillId(anyBillId());
+    }
+}
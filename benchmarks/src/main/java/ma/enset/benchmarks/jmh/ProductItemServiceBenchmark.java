@@ -0,0 +1,109 @@
+package ma.enset.benchmarks.jmh;
+
+import ma.enset.benchmarks.support.BillingContext;
+import ma.enset.billingservice.dto.ProductItemRequest;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import ma.enset.billingservice.service.ProductItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@link ProductItemService} against the real JPA stack on H2, with downstream services stubbed,
+ * for bill tables of increasing size. Every bill has {@link #ITEMS_PER_BILL} items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductItemServiceBenchmark {
+    private static final int ITEMS_PER_BILL = 10;
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    private BillingContext billingContext;
+    private ProductItemService productItemService;
+    private List<UUID> productIds;
+    private List<Long> billIds;
+    private List<Long> itemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productIds = IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID()).toList();
+        billingContext = new BillingContext(productIds);
+        productItemService = billingContext.getBean(ProductItemService.class);
+        BillRepository billRepository = billingContext.getBean(BillRepository.class);
+        ProductItemRepository productItemRepository = billingContext.getBean(ProductItemRepository.class);
+
+        List<Bill> bills = billRepository.saveAll(IntStream.range(0, itemCount / ITEMS_PER_BILL)
+                .mapToObj(i -> Bill.builder().customerId((long) i % 50).billingDate(new Date()).build())
+                .toList());
+        List<ProductItem> items = new ArrayList<>(itemCount);
+        for (Bill bill : bills) {
+            for (int i = 0; i < ITEMS_PER_BILL; i++) {
+                items.add(ProductItem.builder()
+                        .bill(bill)
+                        .productId(productIds.get(i))
+                        .quantity(1 + i)
+                        .unitPrice(100)
+                        .build());
+            }
+        }
+        billIds = bills.stream().map(Bill::getId).toList();
+        itemIds = productItemRepository.saveAll(items).stream().map(ProductItem::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        billingContext.close();
+    }
+
+    private <T> T any(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    @Benchmark
+    public List<ProductItem> getItemsByBillId() {
+        return productItemService.getItemsByBillId(any(billIds));
+    }
+
+    @Benchmark
+    public ProductItem updateItemQuantity() {
+        return productItemService.updateItemQuantity(any(itemIds), 1 + ThreadLocalRandom.current().nextInt(10));
+    }
+
+    @Benchmark
+    public ProductItem addAndRemoveItem() {
+        ProductItemRequest request = new ProductItemRequest();
+        request.setBillId(any(billIds));
+        request.setProductId(any(productIds));
+        request.setQuantity(1);
+        ProductItem item = productItemService.addItemToBill(request);
+        productItemService.removeItemFromBill(item.getId());
+        return item;
+    }
+}
@@ -0,0 +1,174 @@
+package ma.enset.benchmarks.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.BillProjection;
+import ma.enset.billingservice.entities.models.Customer;
+import ma.enset.billingservice.entities.models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One page of customers, products or bills as Spring Data REST's HAL collection and as the lean array of
+ * projection views served for {@code application/vnd.enset.lean+json}. Serialization time is measured per
+ * page; raw and gzip sizes of both representations are printed once per trial. The HAL page is built
+ * from maps with the links Spring Data REST emits, so its time is a lower bound of the real one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepresentationBenchmark {
+    private static final String BASE = "http://localhost:8888/";
+
+    @Param({"customers", "products", "bills"})
+    public String resource;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    public interface CustomerView {
+        String getId();
+        String getName();
+        String getEmail();
+    }
+
+    public interface ProductView {
+        UUID getId();
+        String getName();
+        double getPrice();
+        int getQuantity();
+    }
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> halPage;
+    private List<Object> leanPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+        String service = switch (resource) {
+            case "customers" -> "customer-service";
+            case "products" -> "inventory-service";
+            default -> "billing-service";
+        };
+        String collection = BASE + service + "/api/" + resource;
+        String rel = resource.substring(0, resource.length() - 1);
+
+        leanPage = new ArrayList<>();
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Object view = switch (resource) {
+                case "customers" -> projections.createProjection(CustomerView.class, customer(i));
+                case "products" -> projections.createProjection(ProductView.class, product(i));
+                default -> projections.createProjection(BillProjection.class, bill(i));
+            };
+            leanPage.add(view);
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> item = new LinkedHashMap<>(objectMapper.convertValue(view, Map.class));
+            String self = collection + "/" + item.get("id");
+            Map<String, Object> links = new LinkedHashMap<>();
+            links.put("self", Map.of("href", self));
+            links.put(rel, Map.of("href", self + "{?projection}", "templated", true));
+            if ("bills".equals(resource)) {
+                links.put("productItems", Map.of("href", self + "/productItems"));
+            }
+            item.put("_links", links);
+            items.add(item);
+        }
+
+        int totalElements = pageSize * 50;
+        Map<String, Object> pageLinks = new LinkedHashMap<>();
+        pageLinks.put("first", Map.of("href", collection + "?page=0&size=" + pageSize));
+        pageLinks.put("self", Map.of("href", collection + "?page=0&size=" + pageSize));
+        pageLinks.put("next", Map.of("href", collection + "?page=1&size=" + pageSize));
+        pageLinks.put("last", Map.of("href", collection + "?page=49&size=" + pageSize));
+        pageLinks.put("profile", Map.of("href", BASE + service + "/api/profile/" + resource));
+        halPage = new LinkedHashMap<>();
+        halPage.put("_embedded", Map.of(resource, items));
+        halPage.put("_links", pageLinks);
+        halPage.put("page", Map.of("size", pageSize, "totalElements", totalElements, "totalPages", 50, "number", 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void printSizes() throws IOException {
+        byte[] hal = objectMapper.writeValueAsBytes(halPage);
+        byte[] lean = objectMapper.writeValueAsBytes(leanPage);
+        System.out.printf("%n%s x %d bytes: hal %d (gzip %d), lean %d (gzip %d)%n",
+                resource, pageSize, hal.length, gzip(hal), lean.length, gzip(lean));
+    }
+
+    @Benchmark
+    public byte[] hal() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(halPage);
+    }
+
+    @Benchmark
+    public byte[] lean() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(leanPage);
+    }
+
+    private static int gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.size();
+    }
+
+    private static Customer customer(int i) {
+        Customer customer = new Customer();
+        customer.setId((long) i + 1);
+        customer.setName("Customer " + i);
+        customer.setEmail("customer" + i + "@gmail.com");
+        return customer;
+    }
+
+    private static Product product(int i) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName("Product " + i);
+        product.setPrice(100 + i);
+        product.setQuantity(10 + i % 7);
+        return product;
+    }
+
+    private static Bill bill(int i) {
+        return Bill.builder()
+                .id((long) i + 1)
+                .billingDate(new Date())
+                .customerId((long) i % 10 + 1)
+                .ProductItems(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package ma.enset.benchmarks.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.enset.billingservice.dto.ProductItemRequest;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.entities.models.Customer;
+import ma.enset.billingservice.entities.models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON mapping of the billing payloads with the object mapper Spring Boot would configure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int itemsPerBill;
+
+    private ObjectMapper objectMapper;
+    private Bill fullBill;
+    private String itemRequestJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setName("Hassan");
+        customer.setEmail("hassan@gmail.com");
+        fullBill = Bill.builder()
+                .id(1L)
+                .customerId(1L)
+                .billingDate(new Date())
+                .customer(customer)
+                .ProductItems(new ArrayList<>())
+                .build();
+        for (int i = 0; i < itemsPerBill; i++) {
+            Product product = new Product();
+            product.setId(UUID.randomUUID());
+            product.setName("Product " + i);
+            product.setPrice(100 + i);
+            product.setQuantity(10);
+            fullBill.getProductItems().add(ProductItem.builder()
+                    .id((long) i)
+                    .bill(fullBill)
+                    .productId(product.getId())
+                    .quantity(1 + i % 10)
+                    .unitPrice(product.getPrice())
+                    .product(product)
+                    .build());
+        }
+
+        ProductItemRequest request = new ProductItemRequest();
+        request.setBillId(1L);
+        request.setProductId(UUID.randomUUID());
+        request.setQuantity(3);
+        itemRequestJson = objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public byte[] serializeFullBill() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(fullBill);
+    }
+
+    @Benchmark
+    public ProductItemRequest deserializeItemRequest() throws JsonProcessingException {
+        return objectMapper.readValue(itemRequestJson, ProductItemRequest.class);
+    }
+
+    @Benchmark
+    public List<ProductItem> serializeAndReadItems() throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(fullBill.getProductItems());
+        return objectMapper.readValue(json, objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ProductItem.class));
+    }
+}
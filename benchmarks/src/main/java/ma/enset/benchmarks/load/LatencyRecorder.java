@@ -0,0 +1,55 @@
+package ma.enset.benchmarks.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects every request latency of one scenario so exact percentiles can be reported.
+ */
+public class LatencyRecorder {
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private long[] latencies = new long[1 << 16];
+    private int count;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public synchronized void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    public synchronized String report(Duration elapsed) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return String.format("%-28s %9.1f req/s %9s %9s %9s %9s %7d errors",
+                name,
+                count / (elapsed.toNanos() / 1e9),
+                millis(sorted, 0.50),
+                millis(sorted, 0.99),
+                millis(sorted, 0.999),
+                millis(sorted, 1.0),
+                errors.sum());
+    }
+
+    public static String header() {
+        return String.format("%-28s %15s %9s %9s %9s %9s", "scenario", "throughput", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    }
+
+    private static String millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return "-";
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return String.format("%.2f", sorted[Math.max(index, 0)] / 1e6);
+    }
+}
@@ -0,0 +1,204 @@
+package ma.enset.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the gateway in front of billing, inventory and customer services.
+ * <p>
+ * The services are started from their built jars (run from the repository root after {@code mvn package})
+ * with Eureka and config-server replaced by static discovery entries, seed their demo data, and are then
+ * driven through the gateway by {@code concurrency} virtual threads. Tunables are system properties:
+ * {@code duration} (default 30s), {@code warmup} (10s) and {@code concurrency} (32).
+ */
+public class LoadHarness {
+    private static final List<String> SERVICES = List.of("customer-service", "inventory-service", "billing-service", "gateway-service");
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Integer> ports = new LinkedHashMap<>();
+    private final List<Process> processes = new ArrayList<>();
+    private String gateway;
+    private List<Long> billIds;
+    private List<String> productIds;
+
+    public static void main(String[] args) throws Exception {
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("duration", "30s"));
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("warmup", "10s"));
+        int concurrency = Integer.getInteger("concurrency", 32);
+
+        LoadHarness harness = new LoadHarness();
+        Runtime.getRuntime().addShutdownHook(new Thread(harness::stop));
+        try {
+            harness.start();
+            harness.run(warmup, concurrency, false);
+            harness.run(duration, concurrency, true);
+        } finally {
+            harness.stop();
+        }
+    }
+
+    private void start() throws Exception {
+        for (String service : SERVICES) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports.put(service, socket.getLocalPort());
+            }
+        }
+        File logs = new File("benchmarks/target/load-logs");
+        logs.mkdirs();
+        for (String service : SERVICES) {
+            List<String> command = new ArrayList<>(List.of("java", "-jar",
+                    service + "/target/" + service + "-0.0.1-SNAPSHOT.jar",
+                    "--server.port=" + ports.get(service),
+                    "--eureka.client.enabled=false",
+                    "--spring.cloud.config.enabled=false",
+                    // normally served by config-server
+                    "--spring.data.rest.base-path=/api",
+                    "--logging.level.root=warn"));
+            ports.forEach((name, port) -> command.add(
+                    "--spring.cloud.discovery.client.simple.instances." + name + "[0].uri=http://localhost:" + port));
+            processes.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File(logs, service + ".log"))
+                    .start());
+        }
+        gateway = "http://localhost:" + ports.get("gateway-service");
+        for (String service : SERVICES) {
+            awaitOk("http://localhost:" + ports.get(service) + "/actuator/health", Duration.ofSeconds(120));
+        }
+
+        // Demo data is seeded asynchronously; billing retries until customers and products exist
+        awaitOk(gateway + "/billing-service/bills/full/1", Duration.ofSeconds(120));
+        billIds = new ArrayList<>();
+        for (JsonNode bill : getJson(gateway + "/billing-service/api/bills?size=1000").path("_embedded").path("bills")) {
+            billIds.add(bill.path("id").asLong());
+        }
+        productIds = new ArrayList<>();
+        for (JsonNode product : getJson(gateway + "/inventory-service/inventory/products/snapshot")) {
+            productIds.add(product.path("id").asText());
+        }
+        System.out.printf("Started %s, %d bills, %d products%n", ports, billIds.size(), productIds.size());
+    }
+
+    private void run(Duration duration, int concurrency, boolean report) throws InterruptedException {
+        LatencyRecorder fullBill = new LatencyRecorder("GET /bills/full/{id}");
+        LatencyRecorder addItem = new LatencyRecorder("POST /productItems");
+        LatencyRecorder removeItem = new LatencyRecorder("DELETE /productItems/{id}");
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            boolean reader = i % 4 != 0;
+            workers.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    if (reader) {
+                        getFullBill(fullBill);
+                    } else {
+                        addAndRemoveItem(addItem, removeItem);
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (report) {
+            System.out.println(LatencyRecorder.header());
+            System.out.println(fullBill.report(duration));
+            System.out.println(addItem.report(duration));
+            System.out.println(removeItem.report(duration));
+        }
+    }
+
+    private void getFullBill(LatencyRecorder recorder) {
+        long id = billIds.get(ThreadLocalRandom.current().nextInt(billIds.size()));
+        send(HttpRequest.newBuilder(URI.create(gateway + "/billing-service/bills/full/" + id)).build(), recorder);
+    }
+
+    private void addAndRemoveItem(LatencyRecorder addRecorder, LatencyRecorder removeRecorder) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = String.format("{\"billId\":%d,\"productId\":\"%s\",\"quantity\":1}",
+                billIds.get(random.nextInt(billIds.size())), productIds.get(random.nextInt(productIds.size())));
+        String created = send(HttpRequest.newBuilder(URI.create(gateway + "/billing-service/productItems"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), addRecorder);
+        if (created == null) {
+            return;
+        }
+        try {
+            long itemId = objectMapper.readTree(created).path("id").asLong();
+            send(HttpRequest.newBuilder(URI.create(gateway + "/billing-service/productItems/" + itemId))
+                    .DELETE()
+                    .build(), removeRecorder);
+        } catch (IOException e) {
+            removeRecorder.error();
+        }
+    }
+
+    /**
+     * @return the response body, or {@code null} when the request failed
+     */
+    private String send(HttpRequest request, LatencyRecorder recorder) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                recorder.error();
+                return null;
+            }
+            recorder.record(System.nanoTime() - start);
+            return response.body();
+        } catch (IOException e) {
+            recorder.error();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private JsonNode getJson(String uri) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(uri)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body());
+    }
+
+    private void awaitOk(String uri, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(URI.create(uri)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not up yet
+            }
+            TimeUnit.MILLISECONDS.sleep(250);
+        }
+        throw new UncheckedIOException(new IOException("Timed out waiting for " + uri));
+    }
+
+    private void stop() {
+        processes.forEach(Process::destroy);
+        processes.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package ma.enset.benchmarks.support;
+
+import ma.enset.billingservice.BillingServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Boots billing-service in-process, without web server, Eureka or config-server, with customer-service
+ * and inventory-service replaced by {@link StubServer}s serving a fixed catalog.
+ */
+public final class BillingContext implements AutoCloseable {
+    private final StubServer customerStub;
+    private final StubServer inventoryStub;
+    private final ConfigurableApplicationContext context;
+
+    public BillingContext(List<UUID> productIds, String... extraArgs) {
+        String products = productIds.stream()
+                .map(BillingContext::productJson)
+                .collect(Collectors.joining(",", "[", "]"));
+        customerStub = new StubServer()
+                .json("/api/customers/", path -> "{\"id\":" + lastSegment(path) + ",\"name\":\"Customer\",\"email\":\"customer@example.org\"}")
+                .start();
+        inventoryStub = new StubServer()
+                .json("/inventory/products/snapshot", path -> products)
+                .json("/inventory/products/", path -> path.endsWith("/check-availability")
+                        ? "true"
+                        : productJson(UUID.fromString(path.split("/")[3])))
+                .json("/api/products/", path -> productJson(UUID.fromString(lastSegment(path))))
+                .start();
+        context = new SpringApplicationBuilder(BillingServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(Stream.concat(Stream.of("--spring.cloud.config.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--app.seed.enabled=false",
+                        "--events.feed.enabled=false",
+                        "--logging.level.root=warn",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                        "--spring.cloud.discovery.client.simple.instances.customer-service[0].uri=" + customerStub.uri(),
+                        "--spring.cloud.discovery.client.simple.instances.inventory-service[0].uri=" + inventoryStub.uri()),
+                        Stream.of(extraArgs)).toArray(String[]::new));
+    }
+
+    private static String productJson(UUID id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"Product\",\"price\":100.0,\"quantity\":1000000}";
+    }
+
+    private static String lastSegment(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        customerStub.close();
+        inventoryStub.close();
+    }
+}
@@ -0,0 +1,67 @@
+package ma.enset.benchmarks.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Minimal JSON HTTP server standing in for a downstream service, so benchmarks measure the caller only.
+ */
+public class StubServer implements AutoCloseable {
+    private final HttpServer server;
+
+    public StubServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Serves the JSON returned by {@code handler} for every request under {@code pathPrefix};
+     * a {@code null} result is answered with 404.
+     */
+    public StubServer json(String pathPrefix, Function<String, String> handler) {
+        server.createContext(pathPrefix, exchange -> respond(exchange, handler.apply(exchange.getRequestURI().getPath())));
+        return this;
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    public StubServer start() {
+        server.start();
+        return this;
+    }
+
+    public String uri() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -1,61 +1,24 @@
 package ma.enset.billingservice;
 
-import ma.enset.billingservice.entities.Bill;
-import ma.enset.billingservice.entities.ProductItem;
-import ma.enset.billingservice.entities.models.Customer;
-import ma.enset.billingservice.entities.models.Product;
-import ma.enset.billingservice.feign.CustomerRestClient;
-import ma.enset.billingservice.feign.ProductRestClient;
-import ma.enset.billingservice.repositories.BillRepository;
-import ma.enset.billingservice.repositories.ProductItemRepository;
-import org.springframework.boot.CommandLineRunner;
+import ma.enset.commons.datasource.RoutingDataSourceConfig;
+import ma.enset.commons.discovery.RegistryPushConfig;
+import ma.enset.commons.observability.ObservabilityConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
-import org.springframework.context.annotation.Bean;
-
-import java.util.Collection;
-import java.util.Date;
-import java.util.Random;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+@EnableAsync
+@Import({ObservabilityConfig.class, RegistryPushConfig.class, RoutingDataSourceConfig.class})
 public class BillingServiceApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(BillingServiceApplication.class, args);
     }
 
-    @Bean
-    CommandLineRunner commandLineRunner(
-            BillRepository billRepository,
-            ProductItemRepository productItemRepository,
-            CustomerRestClient customerRestClient,
-            ProductRestClient productRestClient
-    ) {
-        return args -> {
-            Collection<Customer> customers = customerRestClient.getCustomers().getContent();
-            Collection<Product> products = productRestClient.getProducts().getContent();
-
-            customers.forEach(customer -> {
-                Bill bill = Bill.builder()
-                        .customerId(customer.getId())
-                        .billingDate(new Date())
-                        .build();
-                billRepository.save(bill);
-
-                products.forEach(product -> {
-                    ProductItem item = ProductItem.builder()
-                            .bill(bill)
-                            .productId(product.getId())
-                            .quantity(1 + new Random().nextInt(10))
-                            .unitPrice(product.getPrice())
-                            .build();
-                    productItemRepository.save(item);
-                });
-            });
-
-        };
-    }
-
 }
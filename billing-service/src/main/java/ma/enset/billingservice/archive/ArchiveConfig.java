@@ -0,0 +1,40 @@
+package ma.enset.billingservice.archive;
+
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+
+/**
+ * Time-partitioned bill storage: the bill tables hold the current month and the last
+ * {@code billing.archive.hot-months}, older months live in read-only compressed files. Off unless
+ * {@code billing.archive.enabled=true}, which the prod profile sets; otherwise bills stay in the tables.
+ */
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+@ConditionalOnProperty(prefix = "billing.archive", name = "enabled", havingValue = "true")
+public class ArchiveConfig {
+
+    @Bean
+    BillArchive billArchive(ArchiveProperties properties) throws IOException {
+        return new BillArchive(Path.of(properties.getDirectory()), properties.getCacheMonths(), ZoneId.systemDefault());
+    }
+
+    @Bean
+    BillArchiver billArchiver(BillRepository billRepository,
+                              ProductItemRepository productItemRepository,
+                              BillArchive billArchive,
+                              PlatformTransactionManager transactionManager,
+                              ArchiveProperties properties) {
+        return new BillArchiver(billRepository, productItemRepository, billArchive,
+                new TransactionTemplate(transactionManager), properties, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,27 @@
+package ma.enset.billingservice.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "billing.archive")
+@Getter
+@Setter
+public class ArchiveProperties {
+    private boolean enabled = true;
+    /**
+     * Directory of the read-only monthly archive files.
+     */
+    private String directory = "data/bill-archive";
+    /**
+     * Number of past months kept in the bill tables besides the current one; older months are archived.
+     */
+    private int hotMonths = 6;
+    private Duration interval = Duration.ofHours(1);
+    /**
+     * Number of decoded archive months kept in memory.
+     */
+    private int cacheMonths = 12;
+}
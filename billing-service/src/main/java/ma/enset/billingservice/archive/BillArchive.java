@@ -0,0 +1,186 @@
+package ma.enset.billingservice.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold bills: one read-only {@link BillArchiveFile} per month in a local directory. The sorted bill ids
+ * of every month are kept in memory to find the month of a bill; decoded months are cached, least
+ * recently used first out. Bills returned are copies, free to be enriched by the caller.
+ */
+@Slf4j
+public class BillArchive {
+    private static final Pattern FILE_NAME = Pattern.compile("bills-(\\d{4}-\\d{2})\\.bin\\.gz");
+
+    private final Path directory;
+    private final ZoneId zone;
+    private final NavigableMap<YearMonth, long[]> ids = new ConcurrentSkipListMap<>();
+    private final Map<YearMonth, List<Bill>> cache;
+    /**
+     * Incremented under the cache lock by every write, so that a month decoded before a write is not cached.
+     */
+    private long generation;
+
+    public BillArchive(Path directory, int cacheMonths, ZoneId zone) throws IOException {
+        this.directory = directory;
+        this.zone = zone;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<YearMonth, List<Bill>> eldest) {
+                return size() > cacheMonths;
+            }
+        };
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.put(YearMonth.parse(matcher.group(1)), BillArchiveFile.readIds(file));
+                }
+            }
+        }
+        log.info("Bill archive {} holds {} months", directory, ids.size());
+    }
+
+    public YearMonth monthOf(Date date) {
+        return YearMonth.from(date.toInstant().atZone(zone));
+    }
+
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    /**
+     * Adds bills to the month's file, replacing archived bills with the same id.
+     */
+    public synchronized void write(YearMonth month, List<Bill> bills) throws IOException {
+        Map<Long, Bill> merged = new LinkedHashMap<>();
+        if (ids.containsKey(month)) {
+            load(month).forEach(bill -> merged.put(bill.getId(), bill));
+        }
+        bills.forEach(bill -> merged.put(bill.getId(), bill));
+        Path file = file(month);
+        BillArchiveFile.write(file, new ArrayList<>(merged.values()));
+        synchronized (cache) {
+            cache.remove(month);
+            generation++;
+        }
+        ids.put(month, BillArchiveFile.readIds(file));
+    }
+
+    public Optional<Bill> findById(long id) {
+        return findAllById(List.of(id)).stream().findFirst();
+    }
+
+    public List<Bill> findAllById(Collection<Long> billIds) {
+        List<Bill> found = new ArrayList<>();
+        for (Map.Entry<YearMonth, long[]> month : ids.entrySet()) {
+            Set<Long> inMonth = billIds.stream()
+                    .filter(id -> id != null && Arrays.binarySearch(month.getValue(), id) >= 0)
+                    .collect(Collectors.toSet());
+            if (!inMonth.isEmpty()) {
+                load(month.getKey()).stream()
+                        .filter(bill -> inMonth.contains(bill.getId()))
+                        .map(BillArchive::copy)
+                        .forEach(found::add);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Archived bills with {@code from <= billingDate < to}, either bound being optional, of one customer
+     * or of all customers when {@code customerId} is null. Only the months overlapping the range are read.
+     */
+    public List<Bill> findByBillingDateRange(Long customerId, Date from, Date to) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        YearMonth first = from == null ? ids.firstKey() : monthOf(from);
+        YearMonth last = to == null ? ids.lastKey() : monthOf(new Date(to.getTime() - 1));
+        if (first.isAfter(last)) {
+            return List.of();
+        }
+        List<Bill> found = new ArrayList<>();
+        for (YearMonth month : ids.subMap(first, true, last, true).keySet()) {
+            load(month).stream()
+                    .filter(bill -> customerId == null || customerId.equals(bill.getCustomerId()))
+                    .filter(bill -> bill.getBillingDate() != null)
+                    .filter(bill -> from == null || !bill.getBillingDate().before(from))
+                    .filter(bill -> to == null || bill.getBillingDate().before(to))
+                    .map(BillArchive::copy)
+                    .forEach(found::add);
+        }
+        return found;
+    }
+
+    private List<Bill> load(YearMonth month) {
+        long readGeneration;
+        synchronized (cache) {
+            List<Bill> bills = cache.get(month);
+            if (bills != null) {
+                return bills;
+            }
+            readGeneration = generation;
+        }
+        try {
+            List<Bill> bills = BillArchiveFile.read(file(month));
+            synchronized (cache) {
+                if (readGeneration == generation) {
+                    cache.put(month, bills);
+                }
+            }
+            return bills;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(YearMonth month) {
+        return directory.resolve("bills-" + month + ".bin.gz");
+    }
+
+    private static Bill copy(Bill archived) {
+        Bill bill = Bill.builder()
+                .id(archived.getId())
+                .billingDate(archived.getBillingDate())
+                .customerId(archived.getCustomerId())
+                .ProductItems(new ArrayList<>())
+                .build();
+        archived.getProductItems().stream()
+                .filter(Objects::nonNull)
+                .map(item -> ProductItem.builder()
+                        .id(item.getId())
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .bill(bill)
+                        .build())
+                .forEach(bill.getProductItems()::add);
+        return bill;
+    }
+}
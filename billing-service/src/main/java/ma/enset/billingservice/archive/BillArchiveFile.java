@@ -0,0 +1,144 @@
+package ma.enset.billingservice.archive;
+
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed file holding the bills of one month and their items column by column: all bill ids
+ * first, sorted, so that the id index can be read without decoding the rest, then dates, customers,
+ * item counts and the item columns. Files are written once to a temporary file, moved in place and
+ * marked read-only.
+ */
+public final class BillArchiveFile {
+    private static final int MAGIC = 0x42494c4c;
+    private static final int VERSION = 1;
+    private static final long NULL = Long.MIN_VALUE;
+
+    private BillArchiveFile() {
+    }
+
+    public static void write(Path file, List<Bill> bills) throws IOException {
+        List<Bill> sorted = bills.stream().sorted(Comparator.comparing(Bill::getId)).toList();
+        List<ProductItem> items = sorted.stream().flatMap(bill -> bill.getProductItems().stream()).toList();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.size());
+            for (Bill bill : sorted) {
+                out.writeLong(bill.getId());
+            }
+            for (Bill bill : sorted) {
+                out.writeLong(bill.getBillingDate() == null ? NULL : bill.getBillingDate().getTime());
+            }
+            for (Bill bill : sorted) {
+                out.writeLong(bill.getCustomerId() == null ? NULL : bill.getCustomerId());
+            }
+            for (Bill bill : sorted) {
+                out.writeInt(bill.getProductItems().size());
+            }
+            for (ProductItem item : items) {
+                out.writeLong(item.getId());
+            }
+            for (ProductItem item : items) {
+                out.writeLong(item.getProductId() == null ? 0 : item.getProductId().getMostSignificantBits());
+                out.writeLong(item.getProductId() == null ? 0 : item.getProductId().getLeastSignificantBits());
+            }
+            for (ProductItem item : items) {
+                out.writeInt(item.getQuantity());
+            }
+            for (ProductItem item : items) {
+                out.writeDouble(item.getUnitPrice());
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        file.toFile().setReadOnly();
+    }
+
+    /**
+     * @return the sorted ids of the bills in the file
+     */
+    public static long[] readIds(Path file) throws IOException {
+        try (DataInputStream in = open(file)) {
+            long[] ids = new long[in.readInt()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = in.readLong();
+            }
+            return ids;
+        }
+    }
+
+    public static List<Bill> read(Path file) throws IOException {
+        try (DataInputStream in = open(file)) {
+            int count = in.readInt();
+            List<Bill> bills = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                bills.add(Bill.builder().id(in.readLong()).ProductItems(new ArrayList<>()).build());
+            }
+            for (Bill bill : bills) {
+                long date = in.readLong();
+                bill.setBillingDate(date == NULL ? null : new Date(date));
+            }
+            for (Bill bill : bills) {
+                long customerId = in.readLong();
+                bill.setCustomerId(customerId == NULL ? null : customerId);
+            }
+            int[] itemCounts = new int[count];
+            int itemTotal = 0;
+            for (int i = 0; i < count; i++) {
+                itemCounts[i] = in.readInt();
+                itemTotal += itemCounts[i];
+            }
+            List<ProductItem> items = new ArrayList<>(itemTotal);
+            for (int i = 0; i < count; i++) {
+                Bill bill = bills.get(i);
+                for (int j = 0; j < itemCounts[i]; j++) {
+                    ProductItem item = ProductItem.builder().bill(bill).build();
+                    bill.getProductItems().add(item);
+                    items.add(item);
+                }
+            }
+            for (ProductItem item : items) {
+                item.setId(in.readLong());
+            }
+            for (ProductItem item : items) {
+                long most = in.readLong();
+                long least = in.readLong();
+                item.setProductId(most == 0 && least == 0 ? null : new UUID(most, least));
+            }
+            for (ProductItem item : items) {
+                item.setQuantity(in.readInt());
+            }
+            for (ProductItem item : items) {
+                item.setUnitPrice(in.readDouble());
+            }
+            return bills;
+        }
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            in.close();
+            throw new IOException("Not a bill archive: " + file);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,99 @@
+package ma.enset.billingservice.archive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Moves every month older than {@code billing.archive.hot-months} out of the bill tables, oldest first:
+ * the month's bills and items are written to the archive, then deleted. A crash in between leaves the
+ * bills in both places, which readers deduplicate, and the next run merges them into the same file.
+ * <p>
+ * A month is locked, read, written and deleted in one transaction, so that an item added to one of its
+ * bills meanwhile is either blocked by the lock or, where the database lets the insert through, makes the
+ * delete count differ from the archived one and rolls the month back to be archived again by the next run.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BillArchiver {
+    private static final int DELETE_CHUNK = 500;
+
+    private final BillRepository billRepository;
+    private final ProductItemRepository productItemRepository;
+    private final BillArchive billArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final ZoneId zone;
+
+    @Scheduled(initialDelayString = "${billing.archive.interval:1h}", fixedDelayString = "${billing.archive.interval:1h}")
+    public void archiveColdMonths() {
+        Date cutoff = start(YearMonth.now(zone).minusMonths(properties.getHotMonths()));
+        Date oldest;
+        while ((oldest = billRepository.findOldestBillingDate()) != null && oldest.before(cutoff)) {
+            try {
+                archive(billArchive.monthOf(oldest));
+            } catch (Exception e) {
+                log.error("Error archiving bills of {}: {}", billArchive.monthOf(oldest), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public int archive(YearMonth month) throws IOException {
+        Date from = start(month);
+        Date to = start(month.plusMonths(1));
+        Integer archived;
+        try {
+            archived = transactionTemplate.execute(status -> {
+                billRepository.lockByBillingDateRange(from, to);
+                List<Bill> bills = billRepository.findWithItemsByBillingDateRange(from, to);
+                if (bills.isEmpty()) {
+                    return 0;
+                }
+                try {
+                    billArchive.write(month, bills);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                delete(month, bills);
+                return bills.size();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (archived != null && archived > 0) {
+            log.info("Archived {} bills of {}", archived, month);
+        }
+        return archived == null ? 0 : archived;
+    }
+
+    private void delete(YearMonth month, List<Bill> bills) {
+        List<Long> ids = bills.stream().map(Bill::getId).toList();
+        int items = bills.stream().mapToInt(bill -> bill.getProductItems().size()).sum();
+        int deletedItems = 0;
+        for (int i = 0; i < ids.size(); i += DELETE_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + DELETE_CHUNK, ids.size()));
+            deletedItems += productItemRepository.deleteByBillIds(chunk);
+            billRepository.deleteAllByIdInBatch(chunk);
+        }
+        if (deletedItems != items) {
+            throw new IllegalStateException("Items of %s changed while archiving: %d archived, %d deleted"
+                    .formatted(month, items, deletedItems));
+        }
+    }
+
+    private Date start(YearMonth month) {
+        return Date.from(month.atDay(1).atStartOfDay(zone).toInstant());
+    }
+}
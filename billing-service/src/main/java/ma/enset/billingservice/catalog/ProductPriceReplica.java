@@ -0,0 +1,106 @@
+package ma.enset.billingservice.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.billingservice.entities.models.Product;
+import ma.enset.billingservice.events.ChangeFeedConnectedEvent;
+import ma.enset.billingservice.events.EntityChangeEvent;
+import ma.enset.billingservice.feign.ProductRestClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Local copy of every product's name and price, so pricing a line item needs no call to inventory-service.
+ * It is bootstrapped from {@code /inventory/products/snapshot}, kept current by the inventory change feed
+ * and fully resynchronized on every feed (re)connection and periodically as a safety net.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductPriceReplica {
+    private static final String INVENTORY_SERVICE = "inventory-service";
+
+    private final ProductRestClient productRestClient;
+    private final ProductPriceTable table = new ProductPriceTable();
+    /**
+     * Changes received while a snapshot is being loaded; they are re-applied on top of it.
+     */
+    private List<EntityChangeEvent> pendingDuringResync;
+
+    /**
+     * @return the replicated price, or {@link Double#NaN} when the product is not (yet) known locally
+     */
+    public double getPrice(UUID productId) {
+        return table.getPrice(productId, Double.NaN);
+    }
+
+    public String getName(UUID productId) {
+        return table.getName(productId);
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    @Scheduled(fixedDelayString = "${billing.price-replica.resync-interval:5m}")
+    public void resync() {
+        synchronized (this) {
+            if (pendingDuringResync != null) {
+                return;
+            }
+            pendingDuringResync = new ArrayList<>();
+        }
+        List<Product> products;
+        try {
+            products = productRestClient.getProductSnapshot();
+        } catch (Exception e) {
+            log.error("Error loading product snapshot: {}", e.getMessage());
+            synchronized (this) {
+                pendingDuringResync = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            table.replaceAll(products.stream()
+                    .map(p -> new ProductPriceTable.Entry(p.getId(), p.getName(), p.getPrice()))
+                    .toList(), products.size());
+            pendingDuringResync.forEach(this::apply);
+            pendingDuringResync = null;
+        }
+        log.info("Loaded product price snapshot: {} products", products.size());
+    }
+
+    @EventListener
+    public void onFeedConnected(ChangeFeedConnectedEvent event) {
+        if (INVENTORY_SERVICE.equals(event.getService())) {
+            resync();
+        }
+    }
+
+    @EventListener
+    public synchronized void onProductChanged(EntityChangeEvent event) {
+        if (!"Product".equals(event.getEntityType())) {
+            return;
+        }
+        apply(event);
+        if (pendingDuringResync != null) {
+            pendingDuringResync.add(event);
+        }
+    }
+
+    private void apply(EntityChangeEvent event) {
+        UUID id = UUID.fromString(event.getEntityId());
+        JsonNode payload = event.getPayload();
+        if (event.getChangeType() == EntityChangeEvent.ChangeType.DELETED || payload == null) {
+            table.remove(id);
+        } else {
+            table.put(id, payload.path("name").asText(""), payload.path("price").asDouble());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package ma.enset.billingservice.catalog;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from product id to name and price. Ids are kept as two {@code long}s and
+ * prices as a {@code double[]}, so a lookup allocates nothing and the whole catalog fits in a few arrays.
+ * <p>
+ * Reads are optimistic and lock-free in the common case; writes are serialized.
+ */
+public class ProductPriceTable {
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private Slots slots = new Slots(MIN_CAPACITY);
+    private int size;
+
+    /**
+     * @return the price of {@code id}, or {@code missing} when the product is unknown
+     */
+    public double getPrice(UUID id, double missing) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        double price = slots.price(hi, lo, missing);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                price = slots.price(hi, lo, missing);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return price;
+    }
+
+    public String getName(UUID id) {
+        long stamp = lock.readLock();
+        try {
+            int index = slots.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return index >= 0 ? slots.names[index] : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(UUID id, String name, double price) {
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > slots.names.length) {
+                slots = slots.resize(slots.names.length * 2);
+            }
+            if (slots.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), name, price)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(UUID id) {
+        long stamp = lock.writeLock();
+        try {
+            if (slots.remove(id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+                size--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically replaces the whole content, e.g. with a freshly loaded snapshot.
+     */
+    public void replaceAll(Iterable<Entry> entries, int expectedSize) {
+        Slots replacement = new Slots(capacityFor(expectedSize));
+        int count = 0;
+        for (Entry entry : entries) {
+            if (replacement.put(entry.id().getMostSignificantBits(), entry.id().getLeastSignificantBits(),
+                    entry.name(), entry.price())) {
+                count++;
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            slots = replacement;
+            size = count;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    public record Entry(UUID id, String name, double price) {
+    }
+
+    /**
+     * Linear-probing arrays; an empty slot has a {@code null} name. Capacity is a power of two and
+     * the table is kept at most half full.
+     */
+    private static final class Slots {
+        final long[] his;
+        final long[] los;
+        final double[] prices;
+        final String[] names;
+        final int mask;
+
+        Slots(int capacity) {
+            his = new long[capacity];
+            los = new long[capacity];
+            prices = new double[capacity];
+            names = new String[capacity];
+            mask = capacity - 1;
+        }
+
+        static int slot(long hi, long lo, int mask) {
+            long h = hi ^ lo;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h & mask;
+        }
+
+        /**
+         * @return the slot holding the key, or {@code -(insertion slot) - 1}
+         */
+        int find(long hi, long lo) {
+            int i = slot(hi, lo, mask);
+            for (int probes = 0; probes <= mask; probes++) {
+                if (names[i] == null) {
+                    return -i - 1;
+                }
+                if (his[i] == hi && los[i] == lo) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        double price(long hi, long lo, double missing) {
+            int index = find(hi, lo);
+            return index >= 0 ? prices[index] : missing;
+        }
+
+        boolean put(long hi, long lo, String name, double price) {
+            int index = find(hi, lo);
+            boolean added = index < 0;
+            if (added) {
+                index = -index - 1;
+                his[index] = hi;
+                los[index] = lo;
+            }
+            prices[index] = price;
+            names[index] = name != null ? name : "";
+            return added;
+        }
+
+        boolean remove(long hi, long lo) {
+            int hole = find(hi, lo);
+            if (hole < 0) {
+                return false;
+            }
+            // Backward-shift deletion keeps probe sequences intact without tombstones
+            int j = hole;
+            while (true) {
+                j = (j + 1) & mask;
+                if (names[j] == null) {
+                    break;
+                }
+                int home = slot(his[j], los[j], mask);
+                boolean staysPut = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+                if (!staysPut) {
+                    his[hole] = his[j];
+                    los[hole] = los[j];
+                    prices[hole] = prices[j];
+                    names[hole] = names[j];
+                    hole = j;
+                }
+            }
+            names[hole] = null;
+            return true;
+        }
+
+        Slots resize(int capacity) {
+            Slots resized = new Slots(capacity);
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null) {
+                    resized.put(his[i], los[i], names[i], prices[i]);
+                }
+            }
+            return resized;
+        }
+    }
+}
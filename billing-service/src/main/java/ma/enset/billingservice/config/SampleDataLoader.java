@@ -0,0 +1,86 @@
+package ma.enset.billingservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.entities.models.Customer;
+import ma.enset.billingservice.entities.models.Product;
+import ma.enset.billingservice.feign.CustomerRestClient;
+import ma.enset.billingservice.feign.ProductRestClient;
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds one demo bill per customer, with every product, once the other services answer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SampleDataLoader {
+    private final BillRepository billRepository;
+    private final ProductItemRepository productItemRepository;
+    private final CustomerRestClient customerRestClient;
+    private final ProductRestClient productRestClient;
+
+    @Value("${app.seed.enabled:false}")
+    private boolean enabled;
+    @Value("${app.seed.max-attempts:10}")
+    private int maxAttempts;
+    @Value("${app.seed.retry-delay:3s}")
+    private Duration retryDelay;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() throws InterruptedException {
+        if (!enabled || billRepository.count() > 0) {
+            return;
+        }
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                Collection<Customer> customers = customerRestClient.getCustomers().getContent();
+                Collection<Product> products = productRestClient.getProducts().getContent();
+                if (!customers.isEmpty() && !products.isEmpty()) {
+                    seed(customers, products);
+                    return;
+                }
+            } catch (Exception e) {
+                log.warn("Seeding attempt {} failed: {}", attempt, e.getMessage());
+            }
+            Thread.sleep(retryDelay);
+        }
+        log.warn("Skipped seeding bills: customers or products unavailable");
+    }
+
+    private void seed(Collection<Customer> customers, Collection<Product> products) {
+        Random random = new Random();
+        List<Bill> bills = billRepository.saveAll(customers.stream()
+                .map(customer -> Bill.builder()
+                        .customerId(customer.getId())
+                        .billingDate(new Date())
+                        .build())
+                .toList());
+
+        List<ProductItem> items = new ArrayList<>(bills.size() * products.size());
+        bills.forEach(bill -> products.forEach(product -> items.add(ProductItem.builder()
+                .bill(bill)
+                .productId(product.getId())
+                .quantity(1 + random.nextInt(10))
+                .unitPrice(product.getPrice())
+                .build())));
+        productItemRepository.saveAll(items);
+        log.info("Seeded {} bills with {} items", bills.size(), items.size());
+    }
+}
@@ -3,12 +3,17 @@ package ma.enset.billingservice.entities;
 import jakarta.persistence.*;
 import lombok.*;
 import ma.enset.billingservice.entities.models.Customer;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_bill_customer_date", columnList = "customer_id, billing_date"),
+        @Index(name = "idx_bill_date", columnList = "billing_date")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -21,6 +26,7 @@ public class Bill {
     private Date billingDate;
     private Long customerId;
     @OneToMany(mappedBy = "bill")
+    @BatchSize(size = 100)
     private List<ProductItem> ProductItems = new ArrayList<>();
     @Transient
     private Customer customer;
@@ -0,0 +1,12 @@
+package ma.enset.billingservice.entities;
+
+import org.springframework.data.rest.core.config.Projection;
+
+import java.util.Date;
+
+@Projection(name = "lean", types = Bill.class)
+public interface BillProjection {
+    Long getId();
+    Date getBillingDate();
+    Long getCustomerId();
+}
@@ -0,0 +1,15 @@
+package ma.enset.billingservice.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a change feed connection is (re)established. Events may have been missed
+ * while disconnected, so listeners holding local copies of {@code service} data should resync.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeFeedConnectedEvent {
+    private final String service;
+    private final String instanceId;
+}
@@ -0,0 +1,134 @@
+package ma.enset.billingservice.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Follows the server-sent change feed of every registered instance of the configured services and
+ * republishes each {@link EntityChangeEvent} as a local application event. The in-memory broker of
+ * the producers only sees changes made on its own instance, hence one connection per instance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "events.feed", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedSubscriber implements DisposableBean {
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private final DiscoveryClient discoveryClient;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final List<String> services;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final Map<String, Thread> connections = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public ChangeFeedSubscriber(DiscoveryClient discoveryClient,
+                                ApplicationEventPublisher applicationEventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${events.feed.services:customer-service,inventory-service}") List<String> services) {
+        this.discoveryClient = discoveryClient;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper;
+        this.services = services;
+    }
+
+    @Scheduled(fixedDelayString = "${events.feed.discovery-interval:10s}")
+    public void connectInstances() {
+        for (String service : services) {
+            for (ServiceInstance instance : discoveryClient.getInstances(service)) {
+                String key = service + "/" + instance.getInstanceId();
+                Thread connection = Thread.ofVirtual()
+                        .name("change-feed-" + key)
+                        .unstarted(() -> follow(service, instance));
+                if (connections.putIfAbsent(key, connection) == null) {
+                    connection.start();
+                }
+            }
+        }
+    }
+
+    private void follow(String service, ServiceInstance instance) {
+        String key = service + "/" + instance.getInstanceId();
+        AtomicLong lastEventId = new AtomicLong();
+        try {
+            while (running && isRegistered(service, instance)) {
+                try {
+                    stream(service, instance, lastEventId);
+                } catch (IOException e) {
+                    log.warn("Change feed of {} interrupted: {}", key, e.getMessage());
+                }
+                Thread.sleep(RECONNECT_DELAY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(key);
+        }
+    }
+
+    private void stream(String service, ServiceInstance instance, AtomicLong lastEventId)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(instance.getUri() + "/events/changes"))
+                .header("Accept", "text/event-stream")
+                .header("Last-Event-ID", String.valueOf(lastEventId.get()))
+                .build();
+        HttpResponse<Stream<String>> response =
+                httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Unexpected status " + response.statusCode());
+        }
+        applicationEventPublisher.publishEvent(new ChangeFeedConnectedEvent(service, instance.getInstanceId()));
+
+        StringBuilder data = new StringBuilder();
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> iterator = lines.iterator();
+            while (running && iterator.hasNext()) {
+                String line = iterator.next();
+                if (line.startsWith("data:")) {
+                    data.append(line.substring(5).strip());
+                } else if (line.isEmpty() && !data.isEmpty()) {
+                    EntityChangeEvent event = objectMapper.readValue(data.toString(), EntityChangeEvent.class);
+                    event.setSource(service);
+                    lastEventId.set(event.getSequence());
+                    data.setLength(0);
+                    applicationEventPublisher.publishEvent(event);
+                }
+            }
+        }
+    }
+
+    private boolean isRegistered(String service, ServiceInstance instance) {
+        return discoveryClient.getInstances(service).stream()
+                .anyMatch(i -> i.getInstanceId().equals(instance.getInstanceId()));
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        connections.values().forEach(Thread::interrupt);
+    }
+}
@@ -0,0 +1,30 @@
+package ma.enset.billingservice.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Change published on the {@code /events/changes} feed of customer-service and inventory-service.
+ * Listen for it with {@code @EventListener} to invalidate or refresh local copies.
+ */
+@Data
+@NoArgsConstructor
+public class EntityChangeEvent {
+    private long sequence;
+    private String entityType;
+    private String entityId;
+    private ChangeType changeType;
+    private Instant timestamp;
+    private JsonNode payload;
+    /**
+     * Service the event was received from, set locally.
+     */
+    private String source;
+
+    public enum ChangeType {
+        SAVED, DELETED
+    }
+}
@@ -5,6 +5,11 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "customer-service")
 public interface CustomerRestClient {
@@ -13,4 +18,7 @@ public interface CustomerRestClient {
 
     @GetMapping("/api/customers")
     PagedModel<Customer> getCustomers();
+
+    @PostMapping("/customers/batch")
+    List<Customer> getCustomersByIds(@RequestBody Collection<Long> ids);
 }
@@ -6,8 +6,11 @@ import org.springframework.hateoas.PagedModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -19,6 +22,12 @@ public interface ProductRestClient {
     @GetMapping("/api/products")
     PagedModel<Product> getProducts();
 
+    @GetMapping("/inventory/products/snapshot")
+    List<Product> getProductSnapshot();
+
+    @PostMapping("/inventory/products/batch")
+    List<Product> getProductsByIds(@RequestBody Collection<UUID> ids);
+
     @PostMapping("/inventory/products/{id}/update-quantity")
     Product updateQuantity(@PathVariable("id") UUID id, @RequestParam("delta") int delta);
 
@@ -0,0 +1,32 @@
+package ma.enset.billingservice.repositories;
+
+import ma.enset.billingservice.entities.Bill;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bill lookups spanning the bill tables and the monthly archive: each query reads the tables and only
+ * the archived months its date range overlaps. Archived bills are read-only copies, not managed entities.
+ */
+public interface BillArchiveAwareRepository {
+
+    /**
+     * Bills of a customer with {@code from <= billingDate < to}, either bound being optional, oldest first.
+     */
+    List<Bill> findByCustomerIdAndBillingDateRange(Long customerId, Date from, Date to);
+
+    /**
+     * Bills of all customers with {@code from <= billingDate < to}, either bound being optional, oldest first.
+     */
+    List<Bill> findByBillingDateRange(Date from, Date to);
+
+    Optional<Bill> findBillById(Long id);
+
+    /**
+     * Bills with the given ids, in no particular order; unknown ids are skipped.
+     */
+    List<Bill> findBillsById(Collection<Long> ids);
+}
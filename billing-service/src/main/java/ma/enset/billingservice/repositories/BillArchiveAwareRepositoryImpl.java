@@ -0,0 +1,104 @@
+package ma.enset.billingservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import ma.enset.billingservice.archive.BillArchive;
+import ma.enset.billingservice.entities.Bill;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only transactions, so that these lookups go to a replica when routing is enabled; bills read from the
+ * tables come with their items.
+ */
+@Transactional(readOnly = true)
+class BillArchiveAwareRepositoryImpl implements BillArchiveAwareRepository {
+    private static final Comparator<Bill> BY_DATE = Comparator
+            .comparing(Bill::getBillingDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bill::getId);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final ObjectProvider<BillArchive> billArchive;
+
+    BillArchiveAwareRepositoryImpl(ObjectProvider<BillArchive> billArchive) {
+        this.billArchive = billArchive;
+    }
+
+    @Override
+    public List<Bill> findByCustomerIdAndBillingDateRange(Long customerId, Date from, Date to) {
+        List<Bill> hot = entityManager.createQuery("select b from Bill b left join fetch b.ProductItems where b.customerId = :customerId"
+                        + " and (:from is null or b.billingDate >= :from)"
+                        + " and (:to is null or b.billingDate < :to)", Bill.class)
+                .setParameter("customerId", customerId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        BillArchive archive = billArchive.getIfAvailable();
+        return merge(hot, archive == null ? List.of() : archive.findByBillingDateRange(customerId, from, to));
+    }
+
+    @Override
+    public List<Bill> findByBillingDateRange(Date from, Date to) {
+        List<Bill> hot = entityManager.createQuery("select b from Bill b left join fetch b.ProductItems"
+                        + " where (:from is null or b.billingDate >= :from)"
+                        + " and (:to is null or b.billingDate < :to)", Bill.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        BillArchive archive = billArchive.getIfAvailable();
+        return merge(hot, archive == null ? List.of() : archive.findByBillingDateRange(null, from, to));
+    }
+
+    @Override
+    public Optional<Bill> findBillById(Long id) {
+        Optional<Bill> hot = entityManager
+                .createQuery("select b from Bill b left join fetch b.ProductItems where b.id = :id", Bill.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+        if (hot.isPresent()) {
+            return hot;
+        }
+        BillArchive archive = billArchive.getIfAvailable();
+        return archive == null ? Optional.empty() : archive.findById(id);
+    }
+
+    @Override
+    public List<Bill> findBillsById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Bill> bills = new ArrayList<>(entityManager
+                .createQuery("select b from Bill b left join fetch b.ProductItems where b.id in :ids", Bill.class)
+                .setParameter("ids", ids)
+                .getResultList());
+        BillArchive archive = billArchive.getIfAvailable();
+        if (archive != null && bills.size() < ids.size()) {
+            Set<Long> found = bills.stream().map(Bill::getId).collect(Collectors.toSet());
+            bills.addAll(archive.findAllById(ids.stream().filter(id -> !found.contains(id)).toList()));
+        }
+        return bills;
+    }
+
+    /**
+     * Bills being archived can briefly be in both places; the table version wins.
+     */
+    private static List<Bill> merge(List<Bill> hot, List<Bill> archived) {
+        Map<Long, Bill> bills = new LinkedHashMap<>();
+        archived.forEach(bill -> bills.put(bill.getId(), bill));
+        hot.forEach(bill -> bills.put(bill.getId(), bill));
+        return bills.values().stream().sorted(BY_DATE).toList();
+    }
+}
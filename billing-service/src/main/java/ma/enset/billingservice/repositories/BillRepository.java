@@ -1,9 +1,46 @@
 package ma.enset.billingservice.repositories;
 
+import jakarta.persistence.LockModeType;
 import ma.enset.billingservice.entities.Bill;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.Date;
+import java.util.List;
 
 @RepositoryRestResource
-public interface BillRepository extends JpaRepository<Bill, Long> {
-}
\ No newline at end of file
+public interface BillRepository extends JpaRepository<Bill, Long>, BillArchiveAwareRepository {
+
+    /**
+     * One page of {@code type} views, selecting only the columns the view reads.
+     */
+    @RestResource(exported = false)
+    <T> Page<T> findAllBy(Pageable pageable, Class<T> type);
+
+    @RestResource(exported = false)
+    @Query("select min(b.billingDate) from Bill b")
+    Date findOldestBillingDate();
+
+    /**
+     * Locks the bills with {@code from <= billingDate < to} until the end of the transaction, while they
+     * are being archived.
+     */
+    @RestResource(exported = false)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Bill b where b.billingDate >= :from and b.billingDate < :to")
+    List<Bill> lockByBillingDateRange(@Param("from") Date from, @Param("to") Date to);
+
+    /**
+     * Bills with {@code from <= billingDate < to} and their items, read in one query to be archived.
+     */
+    @RestResource(exported = false)
+    @Query("select distinct b from Bill b left join fetch b.ProductItems"
+            + " where b.billingDate >= :from and b.billingDate < :to")
+    List<Bill> findWithItemsByBillingDateRange(@Param("from") Date from, @Param("to") Date to);
+}
@@ -2,8 +2,19 @@ package ma.enset.billingservice.repositories;
 
 import ma.enset.billingservice.entities.ProductItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.Collection;
 
 @RepositoryRestResource
 public interface ProductItemRepository extends JpaRepository<ProductItem, Long> {
-}
\ No newline at end of file
+
+    @RestResource(exported = false)
+    @Modifying
+    @Query("delete from ProductItem i where i.bill.id in :billIds")
+    int deleteByBillIds(@Param("billIds") Collection<Long> billIds);
+}
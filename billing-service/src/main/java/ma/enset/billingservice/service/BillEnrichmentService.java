@@ -0,0 +1,54 @@
+package ma.enset.billingservice.service;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.entities.models.Customer;
+import ma.enset.billingservice.entities.models.Product;
+import ma.enset.billingservice.feign.CustomerRestClient;
+import ma.enset.billingservice.feign.ProductRestClient;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Attaches customers and products to bills. All customer ids and all product ids across the given
+ * bills are deduplicated and resolved with a single batch call per downstream service.
+ */
+@Service
+@RequiredArgsConstructor
+public class BillEnrichmentService {
+    private final CustomerRestClient customerRestClient;
+    private final ProductRestClient productRestClient;
+
+    public List<Bill> enrich(List<Bill> bills) {
+        Set<Long> customerIds = bills.stream()
+                .map(Bill::getCustomerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<UUID> productIds = bills.stream()
+                .flatMap(bill -> bill.getProductItems().stream())
+                .map(ProductItem::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, Customer> customers = customerIds.isEmpty() ? Map.of()
+                : customerRestClient.getCustomersByIds(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity(), (a, b) -> a));
+        Map<UUID, Product> products = productIds.isEmpty() ? Map.of()
+                : productRestClient.getProductsByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity(), (a, b) -> a));
+
+        for (Bill bill : bills) {
+            bill.setCustomer(customers.get(bill.getCustomerId()));
+            bill.getProductItems().forEach(item -> item.setProduct(products.get(item.getProductId())));
+        }
+        return bills;
+    }
+}
@@ -2,6 +2,7 @@ package ma.enset.billingservice.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ma.enset.billingservice.catalog.ProductPriceReplica;
 import ma.enset.billingservice.dto.ProductItemRequest;
 import ma.enset.billingservice.entities.Bill;
 import ma.enset.billingservice.entities.ProductItem;
@@ -22,18 +23,26 @@ public class ProductItemService {
     private final ProductItemRepository productItemRepository;
     private final BillRepository billRepository;
     private final ProductRestClient productRestClient;
+    private final ProductPriceReplica productPriceReplica;
 
+    @Transactional(readOnly = true)
     public List<ProductItem> getItemsByBillId(Long billId) {
-        return productItemRepository.findAll().stream()
-                .filter(item -> item.getBill() != null && item.getBill().getId().equals(billId))
-                .toList();
+        return billRepository.findBillById(billId)
+                .map(bill -> List.copyOf(bill.getProductItems()))
+                .orElse(List.of());
     }
 
     @Transactional
     public ProductItem addItemToBill(ProductItemRequest request) {
         log.info("Adding item to bill: billId={}, productId={}, quantity={}", 
                 request.getBillId(), request.getProductId(), request.getQuantity());
-        
+
+        // Get the bill; archived bills are read-only
+        Bill bill = billRepository.findById(request.getBillId())
+                .orElseThrow(() -> billRepository.findBillById(request.getBillId()).isPresent()
+                        ? new RuntimeException("Bill " + request.getBillId() + " is archived and can no longer be edited")
+                        : new RuntimeException("Bill not found"));
+
         // Check product availability
         try {
             Boolean available = productRestClient.checkAvailability(request.getProductId(), request.getQuantity());
@@ -45,17 +54,16 @@ public class ProductItemService {
             throw new RuntimeException("Could not verify product availability: " + e.getMessage());
         }
 
-        // Get the bill
-        Bill bill = billRepository.findById(request.getBillId())
-                .orElseThrow(() -> new RuntimeException("Bill not found"));
-
-        // Get product details
-        Product product;
-        try {
-            product = productRestClient.getProductById(request.getProductId());
-        } catch (Exception e) {
-            log.error("Error fetching product: {}", e.getMessage());
-            throw new RuntimeException("Could not fetch product details: " + e.getMessage());
+        // Get product price, from the local replica unless the product is not known yet
+        double unitPrice = productPriceReplica.getPrice(request.getProductId());
+        if (Double.isNaN(unitPrice)) {
+            try {
+                Product product = productRestClient.getProductById(request.getProductId());
+                unitPrice = product.getPrice();
+            } catch (Exception e) {
+                log.error("Error fetching product: {}", e.getMessage());
+                throw new RuntimeException("Could not fetch product details: " + e.getMessage());
+            }
         }
 
         // Create and save item
@@ -63,7 +71,7 @@ public class ProductItemService {
                 .bill(bill)
                 .productId(request.getProductId())
                 .quantity(request.getQuantity())
-                .unitPrice(product.getPrice())
+                .unitPrice(unitPrice)
                 .build();
 
         ProductItem savedItem = productItemRepository.save(item);
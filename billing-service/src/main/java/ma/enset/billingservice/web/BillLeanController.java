@@ -0,0 +1,32 @@
+package ma.enset.billingservice.web;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.billingservice.config.RestRepositoryConfig;
+import ma.enset.billingservice.entities.BillProjection;
+import ma.enset.billingservice.repositories.BillRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.List;
+
+/**
+ * Lean variant of {@code GET /api/bills}: requested with {@code Accept: application/vnd.enset.lean+json}, it
+ * returns one page as a plain array of {@link BillProjection} with the total in {@code X-Total-Count}; any
+ * other {@code Accept} keeps the HAL collection.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class BillLeanController {
+    private final BillRepository billRepository;
+
+    @GetMapping(path = "/bills", produces = RestRepositoryConfig.LEAN_JSON_VALUE)
+    public ResponseEntity<List<BillProjection>> bills(Pageable pageable) {
+        Page<BillProjection> page = billRepository.findAllBy(pageable, BillProjection.class);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.getTotalElements()))
+                .body(page.getContent());
+    }
+}
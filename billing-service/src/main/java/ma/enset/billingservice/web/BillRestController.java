@@ -1,28 +1,81 @@
 package ma.enset.billingservice.web;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import ma.enset.billingservice.entities.Bill;
-import ma.enset.billingservice.feign.CustomerRestClient;
-import ma.enset.billingservice.feign.ProductRestClient;
 import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.service.BillEnrichmentService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @RestController
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class BillRestController {
-    private BillRepository billRepository;
-    private CustomerRestClient customerRestClient;
-    private ProductRestClient productRestClient;
+    private final BillRepository billRepository;
+    private final BillEnrichmentService billEnrichmentService;
+
+    @Value("${billing.full.max-ids:100}")
+    private int maxIds;
 
+    /**
+     * The bill with its customer and products. A customer or product no longer known downstream is
+     * left null rather than failing the whole bill.
+     */
     @GetMapping("/bills/full/{id}")
     public Bill getBill(@PathVariable("id") Long id) {
-        Bill bill = billRepository.findById(id).orElseThrow(
+        Bill bill = billRepository.findBillById(id).orElseThrow(
                 () -> new RuntimeException(String.format("Bill %s not found", id))
         );
-        bill.setCustomer(customerRestClient.getCustomerById(bill.getCustomerId()));
-        bill.getProductItems().forEach(p -> p.setProduct(productRestClient.getProductById(p.getProductId())));
-        return bill;
+        return billEnrichmentService.enrich(List.of(bill)).get(0);
+    }
+
+    /**
+     * Fully enriched bills in the requested order; unknown and repeated ids are skipped. At most
+     * {@code billing.full.max-ids} distinct ids are accepted.
+     */
+    @GetMapping("/bills/full")
+    public ResponseEntity<List<Bill>> getBills(@RequestParam("ids") List<Long> ids) {
+        if (ids.stream().distinct().count() > maxIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Long, Bill> bills = billRepository.findBillsById(ids.stream().distinct().toList()).stream()
+                .collect(Collectors.toMap(Bill::getId, Function.identity()));
+        return ResponseEntity.ok(billEnrichmentService.enrich(ids.stream()
+                .distinct()
+                .map(bills::get)
+                .filter(Objects::nonNull)
+                .toList()));
+    }
+
+    /**
+     * Fully enriched bills of a customer billed between {@code from} and {@code to}, both inclusive
+     * ISO dates and both optional, oldest first.
+     */
+    @GetMapping("/bills/full/customer/{customerId}")
+    public List<Bill> getCustomerBills(
+            @PathVariable("customerId") Long customerId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return billEnrichmentService.enrich(billRepository.findByCustomerIdAndBillingDateRange(customerId,
+                from == null ? null : startOfDay(from),
+                to == null ? null : startOfDay(to.plusDays(1))));
+    }
+
+    private static Date startOfDay(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 }
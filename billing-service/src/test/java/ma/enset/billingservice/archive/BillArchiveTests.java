@@ -0,0 +1,101 @@
+package ma.enset.billingservice.archive;
+
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BillArchiveTests {
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    @TempDir
+    Path dir;
+
+    private static Date date(String isoDate) {
+        return Date.from(LocalDate.parse(isoDate).atStartOfDay(ZONE).toInstant());
+    }
+
+    private static Bill bill(long id, long customerId, String isoDate, int items) {
+        Bill bill = Bill.builder()
+                .id(id)
+                .customerId(customerId)
+                .billingDate(date(isoDate))
+                .ProductItems(new ArrayList<>())
+                .build();
+        for (int i = 0; i < items; i++) {
+            bill.getProductItems().add(ProductItem.builder()
+                    .id(id * 100 + i)
+                    .bill(bill)
+                    .productId(UUID.randomUUID())
+                    .quantity(i + 1)
+                    .unitPrice(10.5 * (i + 1))
+                    .build());
+        }
+        return bill;
+    }
+
+    @Test
+    void roundTripsBillsAndItemsThroughReadOnlyFile() throws IOException {
+        Path file = dir.resolve("bills-2024-01.bin.gz");
+        Bill original = bill(7, 3, "2024-01-15", 3);
+        BillArchiveFile.write(file, List.of(bill(9, 1, "2024-01-20", 0), original));
+
+        assertThat(Files.getPosixFilePermissions(file)).doesNotContain(
+                PosixFilePermission.OWNER_WRITE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE);
+        assertThat(BillArchiveFile.readIds(file)).containsExactly(7, 9);
+        Bill read = BillArchiveFile.read(file).get(0);
+        assertThat(read.getBillingDate()).isEqualTo(original.getBillingDate());
+        assertThat(read.getCustomerId()).isEqualTo(3);
+        assertThat(read.getProductItems())
+                .extracting(ProductItem::getId, ProductItem::getProductId, ProductItem::getQuantity, ProductItem::getUnitPrice)
+                .containsExactlyElementsOf(original.getProductItems().stream()
+                        .map(item -> tuple(item.getId(), item.getProductId(),
+                                item.getQuantity(), item.getUnitPrice()))
+                        .toList());
+    }
+
+    @Test
+    void readsOnlyTheMonthsOfTheRequestedRange() throws IOException {
+        BillArchive archive = new BillArchive(dir, 2, ZONE);
+        archive.write(YearMonth.of(2024, 1), List.of(bill(1, 1, "2024-01-05", 1), bill(2, 2, "2024-01-31", 1)));
+        archive.write(YearMonth.of(2024, 2), List.of(bill(3, 1, "2024-02-01", 2)));
+        archive.write(YearMonth.of(2024, 3), List.of(bill(4, 1, "2024-03-10", 1)));
+
+        assertThat(archive.findByBillingDateRange(1L, date("2024-01-01"), date("2024-03-01")))
+                .extracting(Bill::getId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(archive.findByBillingDateRange(null, date("2024-01-31"), date("2024-02-02")))
+                .extracting(Bill::getId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(archive.findByBillingDateRange(1L, null, null))
+                .extracting(Bill::getId).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(archive.findByBillingDateRange(1L, date("2024-04-01"), null)).isEmpty();
+        assertThat(archive.findById(3)).hasValueSatisfying(bill -> assertThat(bill.getProductItems()).hasSize(2));
+        assertThat(archive.findById(5)).isEmpty();
+    }
+
+    @Test
+    void laterWritesMergeIntoTheMonthAndSurviveReopening() throws IOException {
+        BillArchive archive = new BillArchive(dir, 2, ZONE);
+        archive.write(YearMonth.of(2024, 1), List.of(bill(1, 1, "2024-01-05", 1)));
+        archive.findById(1);
+        archive.write(YearMonth.of(2024, 1), List.of(bill(1, 1, "2024-01-05", 2), bill(2, 1, "2024-01-06", 1)));
+
+        BillArchive reopened = new BillArchive(dir, 2, ZONE);
+        assertThat(reopened.findAllById(List.of(1L, 2L, 3L))).extracting(Bill::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(reopened.findById(1)).hasValueSatisfying(bill -> assertThat(bill.getProductItems()).hasSize(2));
+    }
+}
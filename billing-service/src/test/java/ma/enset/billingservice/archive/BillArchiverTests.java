@@ -0,0 +1,244 @@
+package ma.enset.billingservice.archive;
+
+import ma.enset.billingservice.dto.ProductItemRequest;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.feign.CustomerRestClient;
+import ma.enset.billingservice.feign.ProductRestClient;
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import ma.enset.billingservice.service.ProductItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.seed.enabled=false",
+        "events.feed.enabled=false",
+        "eureka.client.enabled=false",
+        "billing.archive.enabled=true",
+        "billing.archive.hot-months=6",
+        "billing.archive.interval=1h"
+})
+@AutoConfigureMockMvc
+class BillArchiverTests {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @TempDir
+    static Path dir;
+
+    @Autowired
+    BillArchiver billArchiver;
+    @MockitoSpyBean
+    BillArchive billArchive;
+    @Autowired
+    BillRepository billRepository;
+    @Autowired
+    ProductItemRepository productItemRepository;
+    @Autowired
+    ProductItemService productItemService;
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    CustomerRestClient customerRestClient;
+    @MockitoBean
+    ProductRestClient productRestClient;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("billing.archive.directory", () -> dir.resolve("bill-archive").toString());
+    }
+
+    private static Date monthsAgo(int months, int day) {
+        return Date.from(YearMonth.now(ZONE).minusMonths(months).atDay(day).atStartOfDay(ZONE).toInstant());
+    }
+
+    private Bill bill(long customerId, Date billingDate, int items) {
+        Bill bill = billRepository.save(Bill.builder().customerId(customerId).billingDate(billingDate).build());
+        for (int i = 0; i < items; i++) {
+            item(bill, i + 1);
+        }
+        return bill;
+    }
+
+    private ProductItem item(Bill bill, int quantity) {
+        return productItemRepository.save(ProductItem.builder()
+                .bill(bill).productId(UUID.randomUUID()).quantity(quantity).unitPrice(10).build());
+    }
+
+    @AfterEach
+    void deleteBills() {
+        productItemRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void coldMonthsMoveToTheArchiveAndReadsSpanBoth() {
+        Bill oldest = bill(1, monthsAgo(9, 3), 2);
+        Bill cold = bill(1, monthsAgo(7, 20), 1);
+        Bill otherCustomer = bill(2, monthsAgo(7, 21), 1);
+        Bill hot = bill(1, monthsAgo(6, 1), 1);
+
+        billArchiver.archiveColdMonths();
+
+        assertThat(billRepository.findAll()).extracting(Bill::getId).containsExactly(hot.getId());
+        assertThat(productItemRepository.findAll()).hasSize(1);
+        assertThat(billArchive.findById(oldest.getId()))
+                .hasValueSatisfying(bill -> assertThat(bill.getProductItems()).hasSize(2));
+        assertThat(billRepository.findByCustomerIdAndBillingDateRange(1L, null, null))
+                .extracting(Bill::getId).containsExactly(oldest.getId(), cold.getId(), hot.getId());
+        assertThat(billRepository.findByBillingDateRange(monthsAgo(7, 1), null))
+                .extracting(Bill::getId).containsExactly(cold.getId(), otherCustomer.getId(), hot.getId());
+        assertThat(billRepository.findBillsById(List.of(oldest.getId(), hot.getId(), -1L)))
+                .extracting(Bill::getId).containsExactlyInAnyOrder(oldest.getId(), hot.getId());
+        assertThat(billRepository.findBillById(cold.getId())).isPresent();
+    }
+
+    @Test
+    void billInBothPlacesIsReadOnceFromTheTable() throws Exception {
+        Bill bill = bill(3, monthsAgo(8, 10), 1);
+        billArchive.write(billArchive.monthOf(bill.getBillingDate()),
+                billRepository.findWithItemsByBillingDateRange(monthsAgo(8, 1), monthsAgo(7, 1)));
+        bill.setBillingDate(monthsAgo(8, 11));
+        billRepository.save(bill);
+
+        assertThat(billRepository.findByCustomerIdAndBillingDateRange(3L, null, null))
+                .singleElement().satisfies(found -> assertThat(found.getBillingDate()).hasSameTimeAs(monthsAgo(8, 11)));
+        assertThat(billRepository.findByBillingDateRange(null, null))
+                .filteredOn(found -> found.getId().equals(bill.getId()))
+                .singleElement().satisfies(found -> assertThat(found.getBillingDate()).hasSameTimeAs(monthsAgo(8, 11)));
+        assertThat(billRepository.findBillById(bill.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getBillingDate()).hasSameTimeAs(monthsAgo(8, 11)));
+        assertThat(billArchive.findById(bill.getId()))
+                .hasValueSatisfying(archived -> assertThat(archived.getBillingDate()).hasSameTimeAs(monthsAgo(8, 10)));
+    }
+
+    @Test
+    void itemAddedWhileTheMonthIsArchivedIsNotLost() throws Exception {
+        Bill bill = bill(5, monthsAgo(8, 10), 1);
+        try (ExecutorService writer = Executors.newSingleThreadExecutor()) {
+            Future<?>[] added = new Future<?>[1];
+            doAnswer(invocation -> {
+                if (added[0] == null) {
+                    added[0] = writer.submit(() -> item(bill, 7));
+                    try {
+                        added[0].get(500, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // blocked by the archiver's lock until it commits
+                    }
+                }
+                return invocation.callRealMethod();
+            }).when(billArchive).write(any(), any());
+
+            billArchiver.archiveColdMonths();
+            List<Integer> quantities = List.of(1);
+            try {
+                added[0].get(10, TimeUnit.SECONDS);
+                quantities = List.of(1, 7);
+            } catch (ExecutionException e) {
+                // rejected once the bill was archived
+            }
+            billArchiver.archiveColdMonths();
+
+            assertThat(billRepository.findAll()).isEmpty();
+            assertThat(productItemRepository.findAll()).isEmpty();
+            List<Integer> expected = quantities;
+            assertThat(billArchive.findById(bill.getId())).hasValueSatisfying(archived ->
+                    assertThat(archived.getProductItems()).extracting(ProductItem::getQuantity)
+                            .containsExactlyInAnyOrderElementsOf(expected));
+        }
+    }
+
+    @Test
+    void archiveAwareLookupsRunReadOnlyAndLoadItems() {
+        Bill cold = bill(6, monthsAgo(8, 10), 1);
+        Bill hot = bill(6, monthsAgo(1, 10), 2);
+        billArchiver.archiveColdMonths();
+        List<Boolean> readOnly = new ArrayList<>();
+        doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return invocation.callRealMethod();
+        }).when(billArchive).findAllById(any());
+
+        List<Bill> bills = billRepository.findBillsById(List.of(cold.getId(), hot.getId()));
+
+        assertThat(readOnly).containsExactly(true);
+        assertThat(bills).extracting(bill -> bill.getProductItems().size()).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void archivedBillsAreServedByTheFullBillEndpointsOnly() throws Exception {
+        when(customerRestClient.getCustomersByIds(anyCollection())).thenReturn(List.of());
+        when(productRestClient.getProductsByIds(anyCollection())).thenReturn(List.of());
+        Bill cold = bill(7, monthsAgo(12, 5), 2);
+        Bill hot = bill(7, monthsAgo(1, 10), 1);
+        billArchiver.archiveColdMonths();
+
+        mockMvc.perform(get("/bills/full/{id}", cold.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(cold.getId()))
+                .andExpect(jsonPath("$.productItems", hasSize(2)));
+        mockMvc.perform(get("/bills/full/customer/{id}", 7))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(cold.getId().intValue(), hot.getId().intValue())));
+        mockMvc.perform(get("/bills/{id}", cold.getId()).accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/bills").accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(1))
+                .andExpect(jsonPath("$._embedded.bills[0]._links.self.href").value(endsWith("/bills/" + hot.getId())));
+    }
+
+    @Test
+    void itemsCannotBeAddedToArchivedBills() {
+        Bill bill = bill(8, monthsAgo(10, 4), 1);
+        billArchiver.archiveColdMonths();
+        ProductItemRequest request = new ProductItemRequest();
+        request.setBillId(bill.getId());
+        request.setProductId(UUID.randomUUID());
+        request.setQuantity(1);
+
+        assertThatThrownBy(() -> productItemService.addItemToBill(request))
+                .hasMessage("Bill " + bill.getId() + " is archived and can no longer be edited");
+        request.setBillId(-1L);
+        assertThatThrownBy(() -> productItemService.addItemToBill(request))
+                .hasMessage("Bill not found");
+    }
+}
@@ -0,0 +1,78 @@
+package ma.enset.billingservice.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.enset.billingservice.entities.models.Product;
+import ma.enset.billingservice.events.EntityChangeEvent;
+import ma.enset.billingservice.feign.ProductRestClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductPriceReplicaTests {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ProductRestClient productRestClient = mock(ProductRestClient.class);
+    private final ProductPriceReplica replica = new ProductPriceReplica(productRestClient);
+
+    private static Product product(UUID id, String name, double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        return product;
+    }
+
+    private static EntityChangeEvent changed(UUID id, EntityChangeEvent.ChangeType changeType, String name, double price) {
+        EntityChangeEvent event = new EntityChangeEvent();
+        event.setEntityType("Product");
+        event.setEntityId(id.toString());
+        event.setChangeType(changeType);
+        if (changeType == EntityChangeEvent.ChangeType.SAVED) {
+            event.setPayload(MAPPER.valueToTree(Map.of("name", name, "price", price)));
+        }
+        return event;
+    }
+
+    @Test
+    void changesReceivedDuringResyncAreAppliedOnTopOfTheSnapshot() {
+        UUID repriced = UUID.randomUUID();
+        UUID created = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID untouched = UUID.randomUUID();
+        // The snapshot was read before the changes below were committed, so it still holds the old state
+        when(productRestClient.getProductSnapshot()).thenAnswer(invocation -> {
+            replica.onProductChanged(changed(repriced, EntityChangeEvent.ChangeType.SAVED, "Desk", 120));
+            replica.onProductChanged(changed(created, EntityChangeEvent.ChangeType.SAVED, "Lamp", 30));
+            replica.onProductChanged(changed(deleted, EntityChangeEvent.ChangeType.DELETED, null, 0));
+            return List.of(product(repriced, "Desk", 100), product(deleted, "Chair", 50),
+                    product(untouched, "Printer", 200));
+        });
+
+        replica.resync();
+
+        assertThat(replica.getPrice(repriced)).isEqualTo(120);
+        assertThat(replica.getPrice(created)).isEqualTo(30);
+        assertThat(replica.getPrice(deleted)).isNaN();
+        assertThat(replica.getPrice(untouched)).isEqualTo(200);
+        assertThat(replica.size()).isEqualTo(3);
+    }
+
+    @Test
+    void failedResyncKeepsTheReplicaAndAcceptsLaterChanges() {
+        UUID id = UUID.randomUUID();
+        replica.onProductChanged(changed(id, EntityChangeEvent.ChangeType.SAVED, "Desk", 100));
+        when(productRestClient.getProductSnapshot()).thenThrow(new IllegalStateException("inventory down"));
+
+        replica.resync();
+        replica.onProductChanged(changed(id, EntityChangeEvent.ChangeType.SAVED, "Desk", 90));
+
+        assertThat(replica.getPrice(id)).isEqualTo(90);
+        assertThat(replica.getName(id)).isEqualTo("Desk");
+    }
+}
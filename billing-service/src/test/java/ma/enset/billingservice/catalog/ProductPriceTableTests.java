@@ -0,0 +1,64 @@
+package ma.enset.billingservice.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductPriceTableTests {
+
+    @Test
+    void putOverwritesAndGrows() {
+        ProductPriceTable table = new ProductPriceTable();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            table.put(id, "p" + i, i);
+        }
+        table.put(ids.get(7), "updated", 42.5);
+
+        assertThat(table.size()).isEqualTo(1000);
+        assertThat(table.getPrice(ids.get(7), Double.NaN)).isEqualTo(42.5);
+        assertThat(table.getName(ids.get(7))).isEqualTo("updated");
+        assertThat(table.getPrice(ids.get(999), Double.NaN)).isEqualTo(999);
+        assertThat(table.getPrice(UUID.randomUUID(), -1)).isEqualTo(-1);
+    }
+
+    @Test
+    void removeKeepsOtherEntriesReachable() {
+        ProductPriceTable table = new ProductPriceTable();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            table.put(id, "p" + i, i);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            table.remove(ids.get(i));
+        }
+
+        assertThat(table.size()).isEqualTo(100);
+        for (int i = 1; i < 200; i += 2) {
+            assertThat(table.getPrice(ids.get(i), Double.NaN)).isEqualTo(i);
+            assertThat(table.getPrice(ids.get(i - 1), -1)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void replaceAllSwapsContent() {
+        ProductPriceTable table = new ProductPriceTable();
+        UUID stale = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        table.put(stale, "stale", 1);
+
+        table.replaceAll(List.of(new ProductPriceTable.Entry(fresh, "fresh", 2)), 1);
+
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.getPrice(stale, Double.NaN)).isNaN();
+        assertThat(table.getPrice(fresh, Double.NaN)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,68 @@
+package ma.enset.billingservice.service;
+
+import ma.enset.billingservice.catalog.ProductPriceReplica;
+import ma.enset.billingservice.dto.ProductItemRequest;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.entities.models.Product;
+import ma.enset.billingservice.feign.ProductRestClient;
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductItemServiceTests {
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+
+    private final ProductItemRepository productItemRepository = mock(ProductItemRepository.class);
+    private final BillRepository billRepository = mock(BillRepository.class);
+    private final ProductRestClient productRestClient = mock(ProductRestClient.class);
+    private final ProductPriceReplica productPriceReplica = mock(ProductPriceReplica.class);
+    private final ProductItemService service =
+            new ProductItemService(productItemRepository, billRepository, productRestClient, productPriceReplica);
+
+    private static ProductItemRequest request() {
+        ProductItemRequest request = new ProductItemRequest();
+        request.setBillId(1L);
+        request.setProductId(PRODUCT_ID);
+        request.setQuantity(2);
+        return request;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(productRestClient.checkAvailability(PRODUCT_ID, 2)).thenReturn(true);
+        when(billRepository.findById(1L)).thenReturn(Optional.of(Bill.builder().id(1L).build()));
+        when(productItemRepository.save(any(ProductItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void pricesFromTheReplicaWithoutCallingInventory() {
+        when(productPriceReplica.getPrice(PRODUCT_ID)).thenReturn(12.5);
+
+        assertThat(service.addItemToBill(request()).getUnitPrice()).isEqualTo(12.5);
+        verify(productRestClient, never()).getProductById(any());
+    }
+
+    @Test
+    void fallsBackToInventoryForProductsNotReplicatedYet() {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        product.setPrice(40);
+        when(productPriceReplica.getPrice(PRODUCT_ID)).thenReturn(Double.NaN);
+        when(productRestClient.getProductById(PRODUCT_ID)).thenReturn(product);
+
+        assertThat(service.addItemToBill(request()).getUnitPrice()).isEqualTo(40);
+        verify(productRestClient).getProductById(PRODUCT_ID);
+    }
+}
@@ -0,0 +1,76 @@
+package ma.enset.billingservice.web;
+
+import ma.enset.billingservice.config.RestRepositoryConfig;
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.repositories.BillRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.seed.enabled=false",
+        "events.feed.enabled=false",
+        "eureka.client.enabled=false",
+        "billing.archive.enabled=false"
+})
+@AutoConfigureMockMvc
+class BillLeanControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BillRepository billRepository;
+
+    @BeforeEach
+    void saveBills() {
+        for (long customerId = 1; customerId <= 3; customerId++) {
+            billRepository.save(Bill.builder().customerId(customerId).billingDate(new Date()).build());
+        }
+    }
+
+    @AfterEach
+    void deleteBills() {
+        billRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void leanAcceptReturnsAPlainPageWithTheTotalInAHeader() throws Exception {
+        mockMvc.perform(get("/bills").param("size", "2").param("sort", "customerId,desc")
+                        .accept(RestRepositoryConfig.LEAN_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(RestRepositoryConfig.LEAN_JSON_VALUE))
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].customerId").value(contains(3, 2)))
+                .andExpect(jsonPath("$[0].billingDate").exists())
+                .andExpect(jsonPath("$[0]._links").doesNotExist())
+                .andExpect(jsonPath("$[0].productItems").doesNotExist());
+    }
+
+    @Test
+    void halStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/bills").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$._embedded.bills", hasSize(2)))
+                .andExpect(jsonPath("$._links.self").exists())
+                .andExpect(jsonPath("$.page.totalElements").value(3));
+        mockMvc.perform(get("/bills").accept(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$._embedded.bills", hasSize(3)));
+    }
+}
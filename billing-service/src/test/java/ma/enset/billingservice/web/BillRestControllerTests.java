@@ -0,0 +1,161 @@
+package ma.enset.billingservice.web;
+
+import ma.enset.billingservice.entities.Bill;
+import ma.enset.billingservice.entities.ProductItem;
+import ma.enset.billingservice.entities.models.Customer;
+import ma.enset.billingservice.entities.models.Product;
+import ma.enset.billingservice.feign.CustomerRestClient;
+import ma.enset.billingservice.feign.ProductRestClient;
+import ma.enset.billingservice.repositories.BillRepository;
+import ma.enset.billingservice.repositories.ProductItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.seed.enabled=false",
+        "events.feed.enabled=false",
+        "eureka.client.enabled=false",
+        "billing.archive.enabled=false",
+        "billing.full.max-ids=4"
+})
+@AutoConfigureMockMvc
+class BillRestControllerTests {
+    private static final UUID DESK = UUID.randomUUID();
+    private static final UUID PRINTER = UUID.randomUUID();
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BillRepository billRepository;
+    @Autowired
+    ProductItemRepository productItemRepository;
+    @MockitoBean
+    CustomerRestClient customerRestClient;
+    @MockitoBean
+    ProductRestClient productRestClient;
+
+    private static Date date(String isoDate) {
+        return Date.from(LocalDate.parse(isoDate).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName("customer-" + id);
+        return customer;
+    }
+
+    private static Product product(UUID id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+
+    private long bill(long customerId, String isoDate, UUID... productIds) {
+        Bill bill = billRepository.save(Bill.builder().customerId(customerId).billingDate(date(isoDate)).build());
+        for (UUID productId : productIds) {
+            productItemRepository.save(ProductItem.builder()
+                    .bill(bill).productId(productId).quantity(1).unitPrice(10).build());
+        }
+        return bill.getId();
+    }
+
+    @BeforeEach
+    void stubDownstreamServices() {
+        when(customerRestClient.getCustomersByIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(BillRestControllerTests::customer).toList());
+        when(productRestClient.getProductsByIds(anyCollection()))
+                .thenReturn(List.of(product(DESK, "Desk"), product(PRINTER, "Printer")));
+    }
+
+    @AfterEach
+    void deleteBills() {
+        productItemRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchResolvesDeduplicatedIdsWithOneCallPerService() throws Exception {
+        long first = bill(1, "2025-01-10", DESK, PRINTER);
+        long second = bill(1, "2025-01-11", DESK);
+        long third = bill(2, "2025-01-12", PRINTER, DESK);
+
+        mockMvc.perform(get("/bills/full").param("ids", third + "," + first + "," + third + ",999999," + second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains((int) third, (int) first, (int) second)))
+                .andExpect(jsonPath("$[0].customer.name").value("customer-2"))
+                .andExpect(jsonPath("$[1].productItems[*].product.name").value(contains("Desk", "Printer")));
+
+        ArgumentCaptor<Collection<Long>> customerIds = ArgumentCaptor.captor();
+        verify(customerRestClient, times(1)).getCustomersByIds(customerIds.capture());
+        assertThat(customerIds.getValue()).containsExactlyInAnyOrder(1L, 2L);
+        ArgumentCaptor<Collection<UUID>> productIds = ArgumentCaptor.captor();
+        verify(productRestClient, times(1)).getProductsByIds(productIds.capture());
+        assertThat(productIds.getValue()).containsExactlyInAnyOrder(DESK, PRINTER);
+        verify(customerRestClient, never()).getCustomerById(any());
+        verify(productRestClient, never()).getProductById(any());
+    }
+
+    @Test
+    void tooManyIdsIsABadRequest() throws Exception {
+        mockMvc.perform(get("/bills/full").param("ids", "1,2,3,4,4")).andExpect(status().isOk());
+        mockMvc.perform(get("/bills/full").param("ids", "1,2,3,4,5")).andExpect(status().isBadRequest());
+        verify(customerRestClient, never()).getCustomersByIds(anyCollection());
+    }
+
+    @Test
+    void customerHistoryIsLimitedToTheInclusiveDateRange() throws Exception {
+        bill(7, "2025-02-28", DESK);
+        long march = bill(7, "2025-03-01", DESK);
+        long endOfMarch = bill(7, "2025-03-31", PRINTER);
+        bill(7, "2025-04-01", DESK);
+        bill(8, "2025-03-15", DESK);
+
+        mockMvc.perform(get("/bills/full/customer/7").param("from", "2025-03-01").param("to", "2025-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains((int) march, (int) endOfMarch)));
+        verify(customerRestClient, times(1)).getCustomersByIds(anyCollection());
+        verify(productRestClient, times(1)).getProductsByIds(anyCollection());
+    }
+
+    @Test
+    void unknownProductIsReturnedAsNull() throws Exception {
+        UUID deleted = UUID.randomUUID();
+        long id = bill(3, "2025-05-05", DESK, deleted);
+
+        mockMvc.perform(get("/bills/full/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productItems", hasSize(2)))
+                .andExpect(jsonPath("$.productItems[0].product.name").value("Desk"))
+                .andExpect(jsonPath("$.productItems[1].product").value(nullValue()));
+    }
+}
@@ -0,0 +1,12 @@
+package ma.enset.configservice.snapshot;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Property keys whose effective value changed for one {@code application/profile/label} between two
+ * snapshot versions.
+ */
+public record ConfigChange(long version, String application, String profile, String label,
+                           Set<String> keys, Instant timestamp) {
+}
@@ -0,0 +1,114 @@
+package ma.enset.configservice.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes {@link ConfigChange}s to connected clients as server-sent events, retaining the last
+ * {@code capacity} changes for clients reconnecting with {@code Last-Event-ID}.
+ * <p>
+ * Publishing only queues the change. Each subscriber has a bounded queue written to its connection by its
+ * own virtual thread; a subscriber that falls {@code queueCapacity} changes behind is disconnected and
+ * catches up from the retained changes when it reconnects.
+ */
+public class ConfigChangeBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(ConfigChangeBroadcaster.class);
+
+    private final int capacity;
+    private final int queueCapacity;
+    private final Deque<ConfigChange> retained = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public ConfigChangeBroadcaster(int capacity, int queueCapacity) {
+        this.capacity = capacity;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public synchronized void publish(ConfigChange change) {
+        if (retained.size() == capacity) {
+            retained.removeFirst();
+        }
+        retained.addLast(change);
+        subscribers.forEach(subscriber -> subscriber.offer(change));
+    }
+
+    public synchronized SseEmitter subscribe(long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(0L));
+        retained.stream()
+                .filter(change -> change.version() > lastEventId)
+                .forEach(subscriber::offer);
+        if (!subscriber.done) {
+            subscribers.add(subscriber);
+        }
+        subscriber.start();
+        return subscriber.emitter;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<ConfigChange> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile boolean done;
+        private volatile boolean overflowed;
+        private volatile Thread sender;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::stop);
+            emitter.onTimeout(this::stop);
+            emitter.onError(e -> stop());
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("config-changes-subscriber").start(this::drain);
+        }
+
+        private void offer(ConfigChange change) {
+            if (!done && !queue.offer(change)) {
+                log.warn("Config change subscriber fell {} changes behind, disconnecting it", queueCapacity);
+                overflowed = true;
+                stop();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!done) {
+                    ConfigChange change = queue.take();
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.version()))
+                            .name(change.application())
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException e) {
+                stop();
+                emitter.completeWithError(e);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (overflowed) {
+                emitter.complete();
+            }
+        }
+
+        private void stop() {
+            done = true;
+            subscribers.remove(this);
+            queue.clear();
+            Thread current = sender;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
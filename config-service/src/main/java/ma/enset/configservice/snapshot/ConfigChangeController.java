@@ -0,0 +1,23 @@
+package ma.enset.configservice.snapshot;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@ConditionalOnProperty(prefix = "config.snapshot", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConfigChangeController {
+    private final ConfigChangeBroadcaster broadcaster;
+
+    public ConfigChangeController(ConfigChangeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(path = "/events/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(name = "Last-Event-ID", defaultValue = "0") long lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,144 @@
+package ma.enset.configservice.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.environment.PropertyValueDescriptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versioned in-memory copy of the environments served recently. Requests are answered from the snapshot;
+ * only the first request for an {@code application/profile/label} goes to the backend. {@link #refresh()}
+ * reloads all entries in the background and reports the effective property changes, bumping the version
+ * once per changed entry. A failing backend leaves the last good snapshot in place.
+ * <p>
+ * The snapshot holds at most {@code maxEntries} environments; past that, new ones are served straight from
+ * the backend. An entry not requested for {@code idleTimeout} is dropped on the next refresh, and its changes
+ * are no longer pushed, unless its {@code application/profile} is {@linkplain #pin pinned}.
+ */
+public class EnvironmentSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(EnvironmentSnapshot.class);
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> pinned = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private final int maxEntries;
+    private final Duration idleTimeout;
+    private final Clock clock;
+
+    public EnvironmentSnapshot(int maxEntries, Duration idleTimeout, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+    }
+
+    public Environment get(String application, String profile, String label, boolean includeOrigin,
+                           Supplier<Environment> loader) {
+        Key key = new Key(application, profile, label, includeOrigin);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Environment environment = loader.get();
+            if (entries.size() >= maxEntries) {
+                log.debug("Snapshot full, serving {}/{} from the backend", application, profile);
+                return environment;
+            }
+            entry = entries.computeIfAbsent(key, k -> new Entry(loader, environment));
+        }
+        entry.lastAccess = clock.millis();
+        return entry.environment;
+    }
+
+    /**
+     * Keeps the environments of {@code application/profile} in the snapshot, whether requested or not.
+     */
+    public void pin(String application, String profile) {
+        pinned.add(application + "/" + profile);
+    }
+
+    public synchronized List<ConfigChange> refresh() {
+        long idleSince = clock.millis() - idleTimeout.toMillis();
+        entries.entrySet().removeIf(e -> e.getValue().lastAccess < idleSince
+                && !pinned.contains(e.getKey().application() + "/" + e.getKey().profile()));
+        List<ConfigChange> changes = new ArrayList<>();
+        entries.forEach((key, entry) -> {
+            Environment environment;
+            try {
+                environment = entry.loader.get();
+            } catch (RuntimeException e) {
+                log.warn("Keeping snapshot of {}/{} after reload failure: {}",
+                        key.application(), key.profile(), e.getMessage());
+                return;
+            }
+            Map<String, Object> properties = flatten(environment);
+            Set<String> keys = changedKeys(entry.properties, properties);
+            entry.environment = environment;
+            entry.properties = properties;
+            if (!keys.isEmpty()) {
+                changes.add(new ConfigChange(version.incrementAndGet(), key.application(), key.profile(),
+                        key.label(), keys, Instant.now()));
+            }
+        });
+        return changes;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Effective properties: the first property source containing a key wins, as on the client.
+     */
+    static Map<String, Object> flatten(Environment environment) {
+        Map<String, Object> properties = new HashMap<>();
+        for (PropertySource source : environment.getPropertySources()) {
+            source.getSource().forEach((key, value) -> properties.putIfAbsent(String.valueOf(key),
+                    value instanceof PropertyValueDescriptor descriptor ? descriptor.getValue() : value));
+        }
+        return properties;
+    }
+
+    static Set<String> changedKeys(Map<String, Object> before, Map<String, Object> after) {
+        Set<String> keys = new HashSet<>();
+        after.forEach((key, value) -> {
+            if (!Objects.equals(before.get(key), value)) {
+                keys.add(key);
+            }
+        });
+        before.keySet().stream().filter(key -> !after.containsKey(key)).forEach(keys::add);
+        return keys;
+    }
+
+    private record Key(String application, String profile, String label, boolean includeOrigin) {
+    }
+
+    private static final class Entry {
+        private final Supplier<Environment> loader;
+        private volatile Environment environment;
+        private volatile Map<String, Object> properties;
+        private volatile long lastAccess;
+
+        private Entry(Supplier<Environment> loader, Environment environment) {
+            this.loader = loader;
+            this.environment = environment;
+            this.properties = flatten(environment);
+        }
+    }
+}
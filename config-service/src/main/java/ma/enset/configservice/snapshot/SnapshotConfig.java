@@ -0,0 +1,64 @@
+package ma.enset.configservice.snapshot;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.config.server.environment.CompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Puts an {@link EnvironmentSnapshot} in front of the backend selected by the usual config-server
+ * profiles (git by default, {@code native} for the filesystem) and pushes changes on
+ * {@code /events/changes}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "config.snapshot", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SnapshotConfig {
+
+    @Bean
+    EnvironmentSnapshot environmentSnapshot(@Value("${config.snapshot.max-entries:256}") int maxEntries,
+                                            @Value("${config.snapshot.idle-timeout:1h}") Duration idleTimeout) {
+        return new EnvironmentSnapshot(maxEntries, idleTimeout, Clock.systemUTC());
+    }
+
+    /**
+     * Wraps the composite repository the config server resolves every request through, whatever backend
+     * it is made of.
+     */
+    @Bean
+    static BeanPostProcessor snapshotEnvironmentRepositoryPostProcessor(ObjectProvider<EnvironmentSnapshot> snapshot) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CompositeEnvironmentRepository repository) {
+                    return new SnapshotEnvironmentRepository(repository, snapshot.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    ConfigChangeBroadcaster configChangeBroadcaster(
+            @Value("${config.snapshot.replay-capacity:256}") int capacity,
+            @Value("${config.snapshot.subscriber-queue-capacity:256}") int queueCapacity) {
+        return new ConfigChangeBroadcaster(capacity, queueCapacity);
+    }
+
+    @Bean
+    SnapshotRefresher snapshotRefresher(EnvironmentRepository environmentRepository,
+                                        EnvironmentSnapshot environmentSnapshot,
+                                        ConfigChangeBroadcaster configChangeBroadcaster,
+                                        @Value("${config.snapshot.preload:}") List<String> preload) {
+        return new SnapshotRefresher(environmentRepository, environmentSnapshot, configChangeBroadcaster, preload);
+    }
+}
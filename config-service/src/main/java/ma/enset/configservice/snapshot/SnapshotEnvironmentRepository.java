@@ -0,0 +1,37 @@
+package ma.enset.configservice.snapshot;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+
+/**
+ * Serves the configured backend (git or native) through an {@link EnvironmentSnapshot}.
+ */
+public class SnapshotEnvironmentRepository implements EnvironmentRepository, SearchPathLocator {
+    private final EnvironmentRepository delegate;
+    private final EnvironmentSnapshot snapshot;
+
+    public SnapshotEnvironmentRepository(EnvironmentRepository delegate, EnvironmentSnapshot snapshot) {
+        this.delegate = delegate;
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        return snapshot.get(application, profile, label, includeOrigin,
+                () -> delegate.findOne(application, profile, label, includeOrigin));
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        if (delegate instanceof SearchPathLocator locator) {
+            return locator.getLocations(application, profile, label);
+        }
+        return new Locations(application, profile, label, null, new String[0]);
+    }
+}
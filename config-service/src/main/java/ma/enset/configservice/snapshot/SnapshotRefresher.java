@@ -0,0 +1,59 @@
+package ma.enset.configservice.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Loads the configured environments into the snapshot once the server is up, pinned so that their changes
+ * are pushed however long clients go without fetching them, then reloads the snapshot from the backend on
+ * a fixed delay and broadcasts what changed. Requests never wait for a fetch.
+ */
+public class SnapshotRefresher {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRefresher.class);
+
+    private final EnvironmentRepository environmentRepository;
+    private final EnvironmentSnapshot snapshot;
+    private final ConfigChangeBroadcaster broadcaster;
+    private final List<String> preload;
+
+    public SnapshotRefresher(EnvironmentRepository environmentRepository, EnvironmentSnapshot snapshot,
+                             ConfigChangeBroadcaster broadcaster, List<String> preload) {
+        this.environmentRepository = environmentRepository;
+        this.snapshot = snapshot;
+        this.broadcaster = broadcaster;
+        this.preload = preload;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        Thread.ofVirtual().name("config-snapshot-preload").start(() -> {
+            for (String environment : preload) {
+                String[] parts = environment.split("/", 3);
+                String profile = parts.length > 1 ? parts[1] : "default";
+                snapshot.pin(parts[0], profile);
+                try {
+                    environmentRepository.findOne(parts[0], profile, parts.length > 2 ? parts[2] : null);
+                } catch (RuntimeException e) {
+                    log.warn("Could not preload {}: {}", environment, e.getMessage());
+                }
+            }
+            log.info("Config snapshot preloaded with {} environments", snapshot.size());
+        });
+    }
+
+    @Scheduled(initialDelayString = "${config.snapshot.refresh-interval:30s}",
+            fixedDelayString = "${config.snapshot.refresh-interval:30s}")
+    public void refresh() {
+        for (ConfigChange change : snapshot.refresh()) {
+            log.info("Config of {}/{} changed at version {}: {}",
+                    change.application(), change.profile(), change.version(), change.keys());
+            broadcaster.publish(change);
+        }
+    }
+}
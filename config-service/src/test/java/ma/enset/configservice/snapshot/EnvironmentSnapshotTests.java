@@ -0,0 +1,139 @@
+package ma.enset.configservice.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EnvironmentSnapshotTests {
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    private EnvironmentSnapshot snapshot() {
+        return new EnvironmentSnapshot(2, Duration.ofMinutes(10), clock);
+    }
+
+    private static Environment environment(Map<String, Object> application, Map<String, Object> shared) {
+        Environment environment = new Environment("customer-service", "default");
+        environment.add(new PropertySource("customer-service.properties", application));
+        environment.add(new PropertySource("application.properties", shared));
+        return environment;
+    }
+
+    @Test
+    void loadsOnFirstRequestOnlyThenServesSnapshot() {
+        AtomicInteger loads = new AtomicInteger();
+        EnvironmentSnapshot snapshot = snapshot();
+        Environment first = snapshot.get("customer-service", "default", null, false, () -> {
+            loads.incrementAndGet();
+            return environment(Map.of("customer.params.x", 1), Map.of());
+        });
+        Environment second = snapshot.get("customer-service", "default", null, false, () -> {
+            throw new AssertionError("should be served from the snapshot");
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(snapshot.size()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshReportsEffectivelyChangedKeysOnly() {
+        AtomicReference<Environment> backend = new AtomicReference<>(environment(
+                Map.of("customer.params.x", 1, "global.params.p1", "a"),
+                Map.of("global.params.p1", "shadowed", "global.params.p2", "b")));
+        EnvironmentSnapshot snapshot = snapshot();
+        snapshot.get("customer-service", "default", null, false, backend::get);
+
+        backend.set(environment(
+                Map.of("customer.params.x", 2, "global.params.p1", "a"),
+                Map.of("global.params.p1", "changed but still shadowed")));
+        List<ConfigChange> changes = snapshot.refresh();
+
+        assertThat(changes).singleElement().satisfies(change -> {
+            assertThat(change.application()).isEqualTo("customer-service");
+            assertThat(change.version()).isEqualTo(1);
+            assertThat(change.keys()).containsExactlyInAnyOrder("customer.params.x", "global.params.p2");
+        });
+        assertThat(snapshot.refresh()).isEmpty();
+        assertThat(snapshot.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsLastGoodSnapshotWhenBackendFails() {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Environment loaded = environment(Map.of("customer.params.x", 1), Map.of());
+        EnvironmentSnapshot snapshot = snapshot();
+        snapshot.get("customer-service", "default", null, false, () -> {
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return loaded;
+        });
+
+        failure.set(new IllegalStateException("remote unreachable"));
+        assertThat(snapshot.refresh()).isEmpty();
+        assertThat(snapshot.get("customer-service", "default", null, false, () -> {
+            throw new AssertionError("should be served from the snapshot");
+        })).isSameAs(loaded);
+
+        EnvironmentSnapshot empty = snapshot();
+        assertThatThrownBy(() -> empty.get("customer-service", "default", null, false, () -> {
+            throw failure.get();
+        })).hasMessage("remote unreachable");
+    }
+
+    @Test
+    void dropsIdleEnvironmentsUnlessPinnedAndServesOverflowFromTheBackend() {
+        AtomicInteger loads = new AtomicInteger();
+        EnvironmentSnapshot snapshot = snapshot();
+        snapshot.pin("customer-service", "default");
+        snapshot.get("customer-service", "default", null, false, () -> environment(Map.of(), Map.of()));
+        snapshot.get("billing-service", "default", null, false, () -> environment(Map.of(), Map.of()));
+        snapshot.get("gateway-service", "default", null, false, () -> {
+            loads.incrementAndGet();
+            return environment(Map.of(), Map.of());
+        });
+        snapshot.get("gateway-service", "default", null, false, () -> {
+            loads.incrementAndGet();
+            return environment(Map.of(), Map.of());
+        });
+        assertThat(loads).hasValue(2);
+        assertThat(snapshot.size()).isEqualTo(2);
+
+        now.set(now.get().plus(Duration.ofMinutes(11)));
+        snapshot.refresh();
+
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.get("customer-service", "default", null, false, () -> {
+            throw new AssertionError("should be served from the snapshot");
+        })).isNotNull();
+    }
+}
@@ -0,0 +1,40 @@
+package ma.enset.customerservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.customerservice.entities.Customer;
+import ma.enset.customerservice.repositories.CustomerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Seeds three demo customers once the application is ready.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SampleDataLoader {
+    private final CustomerRepository customerRepository;
+
+    @Value("${app.seed.enabled:false}")
+    private boolean enabled;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled || customerRepository.count() > 0) {
+            return;
+        }
+        List<Customer> customers = customerRepository.saveAll(List.of(
+                Customer.builder().name("Hassan").email("hassan@gmail.com").build(),
+                Customer.builder().name("Fadwa").email("fadwa@gmail.com").build(),
+                Customer.builder().name("Marwan").email("marwan@gmail.com").build()
+        ));
+        log.info("Seeded {} customers", customers.size());
+    }
+}
@@ -1,12 +1,11 @@
 package ma.enset.customerservice.entities;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import jakarta.persistence.*;
 import lombok.*;
+import ma.enset.customerservice.events.CustomerChangeListener;
 
 @Entity
+@EntityListeners(CustomerChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -0,0 +1,26 @@
+package ma.enset.customerservice.events;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import ma.enset.commons.events.EntityChangePublisher;
+import ma.enset.customerservice.entities.Customer;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CustomerChangeListener {
+    private final EntityChangePublisher entityChangePublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Customer customer) {
+        entityChangePublisher.saved("Customer", customer.getId(), customer);
+    }
+
+    @PostRemove
+    public void removed(Customer customer) {
+        entityChangePublisher.deleted("Customer", customer.getId());
+    }
+}
@@ -0,0 +1,136 @@
+package ma.enset.customerservice.refresh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Follows the change stream of config-service and triggers a {@link SelectiveRefresher} refresh when
+ * the configuration of this application changes. Refreshes start after a random delay of up to
+ * {@code maxJitter}, so instances don't all reload at the same moment, and changes arriving in the
+ * meantime are folded into the same refresh. A reconnect also refreshes, to catch up on missed changes.
+ */
+@Slf4j
+public class ConfigChangeSubscriber implements DisposableBean {
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private final SelectiveRefresher selectiveRefresher;
+    private final ObjectMapper objectMapper;
+    private final String application;
+    private final URI changesUri;
+    private final Duration maxJitter;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private volatile Thread connection;
+    private volatile boolean running = true;
+
+    public ConfigChangeSubscriber(SelectiveRefresher selectiveRefresher, ObjectMapper objectMapper,
+                                  String application, String configServerUri, Duration maxJitter) {
+        this.selectiveRefresher = selectiveRefresher;
+        this.objectMapper = objectMapper;
+        this.application = application;
+        this.changesUri = URI.create(configServerUri + "/events/changes");
+        this.maxJitter = maxJitter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        connection = Thread.ofVirtual().name("config-changes").start(this::follow);
+    }
+
+    private void follow() {
+        long lastEventId = 0;
+        boolean connected = false;
+        try {
+            while (running) {
+                try {
+                    HttpResponse<Stream<String>> response = httpClient.send(HttpRequest.newBuilder(changesUri)
+                            .header("Accept", "text/event-stream")
+                            .header("Last-Event-ID", String.valueOf(lastEventId))
+                            .build(), HttpResponse.BodyHandlers.ofLines());
+                    if (response.statusCode() != 200) {
+                        response.body().close();
+                        throw new IOException("Unexpected status " + response.statusCode());
+                    }
+                    if (connected) {
+                        requestRefresh();
+                    }
+                    connected = true;
+                    lastEventId = stream(response.body(), lastEventId);
+                } catch (IOException e) {
+                    log.debug("Config change stream interrupted: {}", e.getMessage());
+                }
+                Thread.sleep(RECONNECT_DELAY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long stream(Stream<String> body, long lastEventId) throws IOException {
+        StringBuilder data = new StringBuilder();
+        try (body) {
+            Iterator<String> lines = body.iterator();
+            while (running && lines.hasNext()) {
+                String line = lines.next();
+                if (line.startsWith("data:")) {
+                    data.append(line.substring(5).strip());
+                } else if (line.isEmpty() && !data.isEmpty()) {
+                    JsonNode change = objectMapper.readTree(data.toString());
+                    data.setLength(0);
+                    lastEventId = change.path("version").asLong(lastEventId);
+                    if (application.equals(change.path("application").asText())) {
+                        log.info("Config change {} pushed for keys {}", lastEventId, change.path("keys"));
+                        requestRefresh();
+                    }
+                }
+            }
+        }
+        return lastEventId;
+    }
+
+    private void requestRefresh() {
+        if (!refreshPending.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("config-refresh").start(() -> {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(maxJitter.toMillis() + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                refreshPending.set(false);
+            }
+            try {
+                selectiveRefresher.refresh();
+            } catch (RuntimeException e) {
+                log.warn("Config refresh failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (connection != null) {
+            connection.interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ma.enset.customerservice.refresh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesBeans;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RefreshConfig {
+
+    @Bean
+    ConfigurationPropertiesRebinder configurationPropertiesRebinder(ConfigurationPropertiesBeans beans) {
+        return new SelectiveConfigurationPropertiesRebinder(beans);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = {"config.push.enabled", "spring.cloud.config.enabled"}, havingValue = "true", matchIfMissing = true)
+    SelectiveRefresher selectiveRefresher(ContextRefresher contextRefresher, RefreshScope refreshScope,
+                                          ConfigurableListableBeanFactory beanFactory) {
+        return new SelectiveRefresher(contextRefresher, refreshScope, beanFactory);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = {"config.push.enabled", "spring.cloud.config.enabled"}, havingValue = "true", matchIfMissing = true)
+    ConfigChangeSubscriber configChangeSubscriber(
+            SelectiveRefresher selectiveRefresher,
+            ObjectMapper objectMapper,
+            @Value("${spring.application.name}") String application,
+            @Value("${config.push.uri:http://localhost:9999}") String configServerUri,
+            @Value("${config.push.max-jitter:2s}") Duration maxJitter
+    ) {
+        return new ConfigChangeSubscriber(selectiveRefresher, objectMapper, application, configServerUri, maxJitter);
+    }
+}
@@ -0,0 +1,48 @@
+package ma.enset.customerservice.refresh;
+
+import org.springframework.beans.BeansException;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBean;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesBeans;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+
+/**
+ * Rebinds only the {@code @ConfigurationProperties} beans under a changed key, instead of all of them
+ * on every environment change.
+ */
+public class SelectiveConfigurationPropertiesRebinder extends ConfigurationPropertiesRebinder {
+    private ApplicationContext applicationContext;
+
+    public SelectiveConfigurationPropertiesRebinder(ConfigurationPropertiesBeans beans) {
+        super(beans);
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        super.setApplicationContext(applicationContext);
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (!applicationContext.equals(event.getSource())) {
+            super.onApplicationEvent(event);
+            return;
+        }
+        List<ConfigurationPropertyName> changed = event.getKeys().stream()
+                .map(key -> ConfigurationPropertyName.adapt(key, '.'))
+                .toList();
+        for (String beanName : getBeanNames()) {
+            ConfigurationPropertiesBean bean = ConfigurationPropertiesBean.get(applicationContext,
+                    applicationContext.getBean(beanName), beanName);
+            if (bean == null
+                    || SelectiveRefresher.affects(ConfigurationPropertyName.adapt(bean.getAnnotation().prefix(), '.'), changed)) {
+                rebind(beanName);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ma.enset.customerservice.refresh;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reloads the environment from config-service and re-creates only the {@code @RefreshScope} beans
+ * that read one of the changed keys, through {@code @Value} placeholders or their
+ * {@code @ConfigurationProperties} prefix. Unlike {@code /actuator/refresh}, every other refresh-scoped
+ * bean keeps its instance.
+ */
+@Slf4j
+public class SelectiveRefresher {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^:}]+)");
+
+    private final ContextRefresher contextRefresher;
+    private final RefreshScope refreshScope;
+    private final ConfigurableListableBeanFactory beanFactory;
+    private Map<String, List<ConfigurationPropertyName>> dependencies;
+
+    public SelectiveRefresher(ContextRefresher contextRefresher, RefreshScope refreshScope,
+                              ConfigurableListableBeanFactory beanFactory) {
+        this.contextRefresher = contextRefresher;
+        this.refreshScope = refreshScope;
+        this.beanFactory = beanFactory;
+    }
+
+    public synchronized Set<String> refresh() {
+        Set<String> keys = contextRefresher.refreshEnvironment();
+        if (keys.isEmpty()) {
+            return keys;
+        }
+        List<ConfigurationPropertyName> changed = keys.stream()
+                .map(key -> ConfigurationPropertyName.adapt(key, '.'))
+                .toList();
+        dependencies().forEach((beanName, names) -> {
+            if (names.stream().anyMatch(name -> affects(name, changed))) {
+                refreshScope.refresh(beanName);
+                log.info("Refreshed {} after change of {}", beanName, keys);
+            }
+        });
+        return keys;
+    }
+
+    static boolean affects(ConfigurationPropertyName dependency, Collection<ConfigurationPropertyName> changed) {
+        return changed.stream().anyMatch(key -> dependency.equals(key) || dependency.isAncestorOf(key));
+    }
+
+    private Map<String, List<ConfigurationPropertyName>> dependencies() {
+        if (dependencies == null) {
+            dependencies = new LinkedHashMap<>();
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                if (!"refresh".equals(definition.getScope())) {
+                    continue;
+                }
+                Class<?> type = beanFactory.getType(beanName);
+                if (type != null) {
+                    dependencies.put(beanName, dependenciesOf(ClassUtils.getUserClass(type)));
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private static List<ConfigurationPropertyName> dependenciesOf(Class<?> type) {
+        List<ConfigurationPropertyName> names = new ArrayList<>();
+        ConfigurationProperties properties = AnnotatedElementUtils.findMergedAnnotation(type, ConfigurationProperties.class);
+        if (properties != null) {
+            names.add(ConfigurationPropertyName.adapt(properties.prefix(), '.'));
+        }
+        ReflectionUtils.doWithFields(type, field -> addPlaceholders(field, names));
+        ReflectionUtils.doWithMethods(type, method -> {
+            addPlaceholders(method, names);
+            for (Parameter parameter : method.getParameters()) {
+                addPlaceholders(parameter, names);
+            }
+        });
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            for (Parameter parameter : constructor.getParameters()) {
+                addPlaceholders(parameter, names);
+            }
+        }
+        return names;
+    }
+
+    private static void addPlaceholders(AnnotatedElement element, List<ConfigurationPropertyName> names) {
+        Value value = element.getAnnotation(Value.class);
+        if (value != null) {
+            Matcher matcher = PLACEHOLDER.matcher(value.value());
+            while (matcher.find()) {
+                names.add(ConfigurationPropertyName.adapt(matcher.group(1), '.'));
+            }
+        }
+    }
+}
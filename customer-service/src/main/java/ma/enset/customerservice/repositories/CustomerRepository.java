@@ -1,9 +1,18 @@
 package ma.enset.customerservice.repositories;
 
 import ma.enset.customerservice.entities.Customer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
 @RepositoryRestResource
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * One page of {@code type} views, selecting only the columns the view reads.
+     */
+    @RestResource(exported = false)
+    <T> Page<T> findAllBy(Pageable pageable, Class<T> type);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package ma.enset.customerservice.web;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.customerservice.config.RestRepositoryConfig;
+import ma.enset.customerservice.entities.CustomerProjection;
+import ma.enset.customerservice.repositories.CustomerRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.List;
+
+/**
+ * Lean variant of {@code GET /api/customers}: requested with {@code Accept: application/vnd.enset.lean+json}, it
+ * returns one page as a plain array of {@link CustomerProjection} with the total in {@code X-Total-Count}; any
+ * other {@code Accept} keeps the HAL collection.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class CustomerLeanController {
+    private final CustomerRepository customerRepository;
+
+    @GetMapping(path = "/customers", produces = RestRepositoryConfig.LEAN_JSON_VALUE)
+    public ResponseEntity<List<CustomerProjection>> customers(Pageable pageable) {
+        Page<CustomerProjection> page = customerRepository.findAllBy(pageable, CustomerProjection.class);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.getTotalElements()))
+                .body(page.getContent());
+    }
+}
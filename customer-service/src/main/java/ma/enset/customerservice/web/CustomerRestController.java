@@ -0,0 +1,22 @@
+package ma.enset.customerservice.web;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.customerservice.entities.Customer;
+import ma.enset.customerservice.repositories.CustomerRepository;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/customers")
+@RequiredArgsConstructor
+public class CustomerRestController {
+
+    private final CustomerRepository customerRepository;
+
+    @PostMapping("/batch")
+    public List<Customer> batch(@RequestBody Set<Long> ids) {
+        return customerRepository.findAllById(ids);
+    }
+}
@@ -0,0 +1,105 @@
+package ma.enset.customerservice.refresh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A fake config-service {@code /events/changes} stream feeds a {@link ConfigChangeSubscriber}: only changes
+ * to this application refresh it, and a reconnect resumes after the last change seen and refreshes to catch up.
+ */
+class ConfigChangeSubscriberTests {
+    private static final String CLOSE = "";
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> lastEventIds = new LinkedBlockingQueue<>();
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private HttpServer server;
+    private ConfigChangeSubscriber subscriber;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events/changes", exchange -> {
+            lastEventIds.add(exchange.getRequestHeaders().getFirst("Last-Event-ID"));
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (String event = events.take(); !CLOSE.equals(event); event = events.take()) {
+                    body.write(event.getBytes(StandardCharsets.UTF_8));
+                    body.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        SelectiveRefresher refresher = mock(SelectiveRefresher.class);
+        when(refresher.refresh()).thenAnswer(invocation -> {
+            refreshes.incrementAndGet();
+            return Set.of();
+        });
+        subscriber = new ConfigChangeSubscriber(refresher, new ObjectMapper(), "customer-service",
+                "http://localhost:" + server.getAddress().getPort(), Duration.ZERO);
+        subscriber.start();
+    }
+
+    @AfterEach
+    void stop() {
+        subscriber.destroy();
+        events.add(CLOSE);
+        server.stop(0);
+    }
+
+    private static String change(long version, String application) {
+        return """
+                id:%d
+                event:%s
+                data:{"version":%d,"application":"%s","profile":"default","keys":["customer.params.x"]}
+
+                """.formatted(version, application, version, application);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void refreshesOnChangesToThisApplicationAndResumesAfterReconnect() throws Exception {
+        assertThat(lastEventIds.poll(5, TimeUnit.SECONDS)).isEqualTo("0");
+
+        events.add(change(1, "billing-service"));
+        events.add(change(2, "customer-service"));
+        await(() -> refreshes.get() == 1);
+
+        events.add(change(3, "gateway-service"));
+        events.add(CLOSE);
+        assertThat(lastEventIds.poll(5, TimeUnit.SECONDS)).isEqualTo("3");
+        await(() -> refreshes.get() == 2);
+
+        Thread.sleep(200);
+        assertThat(refreshes).hasValue(2);
+    }
+}
@@ -0,0 +1,60 @@
+package ma.enset.customerservice.refresh;
+
+import ma.enset.customerservice.config.ConfigTestRestController;
+import ma.enset.customerservice.config.CustomerConfigParams;
+import ma.enset.customerservice.repositories.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SelectiveRefresherTests {
+    private final ContextRefresher contextRefresher = mock(ContextRefresher.class);
+    private final RefreshScope refreshScope = mock(RefreshScope.class);
+    private SelectiveRefresher refresher;
+
+    @BeforeEach
+    void registerBeans() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition controller = new RootBeanDefinition(ConfigTestRestController.class);
+        controller.setScope("refresh");
+        beanFactory.registerBeanDefinition("configTestRestController", controller);
+        RootBeanDefinition params = new RootBeanDefinition(CustomerConfigParams.class);
+        params.setScope("refresh");
+        beanFactory.registerBeanDefinition("customerConfigParams", params);
+        beanFactory.registerBeanDefinition("customerRepository", new RootBeanDefinition(CustomerRepository.class));
+        refresher = new SelectiveRefresher(contextRefresher, refreshScope, beanFactory);
+    }
+
+    @Test
+    void refreshesOnlyTheBeansReadingAChangedKey() {
+        when(contextRefresher.refreshEnvironment()).thenReturn(Set.of("customer.params.x"));
+        assertThat(refresher.refresh()).containsExactly("customer.params.x");
+        verify(refreshScope).refresh("customerConfigParams");
+        verify(refreshScope, never()).refresh("configTestRestController");
+
+        when(contextRefresher.refreshEnvironment()).thenReturn(Set.of("global.params.p2", "unrelated.key"));
+        refresher.refresh();
+        verify(refreshScope).refresh("configTestRestController");
+        verify(refreshScope, never()).refresh("customerRepository");
+    }
+
+    @Test
+    void unchangedEnvironmentRefreshesNothing() {
+        when(contextRefresher.refreshEnvironment()).thenReturn(Set.of());
+
+        assertThat(refresher.refresh()).isEmpty();
+        verify(refreshScope, never()).refresh(anyString());
+    }
+}
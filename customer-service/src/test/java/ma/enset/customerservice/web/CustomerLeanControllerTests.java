@@ -0,0 +1,75 @@
+package ma.enset.customerservice.web;
+
+import ma.enset.customerservice.config.RestRepositoryConfig;
+import ma.enset.customerservice.entities.Customer;
+import ma.enset.customerservice.repositories.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "config.push.enabled=false",
+        "eureka.client.enabled=false",
+        "app.seed.enabled=false",
+        "global.params.p1=1",
+        "global.params.p2=2"
+})
+@AutoConfigureMockMvc
+class CustomerLeanControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @BeforeEach
+    void saveCustomers() {
+        customerRepository.save(Customer.builder().name("Mohamed").email("med@gmail.com").build());
+        customerRepository.save(Customer.builder().name("Imane").email("imane@gmail.com").build());
+        customerRepository.save(Customer.builder().name("Yassine").email("yassine@gmail.com").build());
+    }
+
+    @AfterEach
+    void deleteCustomers() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void leanAcceptReturnsAPlainPageWithTheTotalInAHeader() throws Exception {
+        mockMvc.perform(get("/customers").param("size", "2").param("sort", "name")
+                        .accept(RestRepositoryConfig.LEAN_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(RestRepositoryConfig.LEAN_JSON_VALUE))
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].name").value(contains("Imane", "Mohamed")))
+                .andExpect(jsonPath("$[0].email").value("imane@gmail.com"))
+                .andExpect(jsonPath("$[0]._links").doesNotExist());
+    }
+
+    @Test
+    void halStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/customers").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$._embedded.customers", hasSize(2)))
+                .andExpect(jsonPath("$._links.self").exists())
+                .andExpect(jsonPath("$.page.totalElements").value(3));
+        mockMvc.perform(get("/customers").accept(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$._embedded.customers", hasSize(3)));
+    }
+}
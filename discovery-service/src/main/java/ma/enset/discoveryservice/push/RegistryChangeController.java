@@ -0,0 +1,20 @@
+package ma.enset.discoveryservice.push;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class RegistryChangeController {
+    private final RegistryDeltaBroadcaster broadcaster;
+
+    public RegistryChangeController(RegistryDeltaBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(path = "/registry/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes() {
+        return broadcaster.subscribe();
+    }
+}
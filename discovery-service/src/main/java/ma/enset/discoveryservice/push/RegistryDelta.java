@@ -0,0 +1,13 @@
+package ma.enset.discoveryservice.push;
+
+/**
+ * One registry change. {@code REGISTERED} is also sent when a registered instance changes status,
+ * since clients re-register on status change; {@code CANCELLED} covers both shutdown and eviction.
+ */
+public record RegistryDelta(long sequence, Action action, String serviceId, String instanceId,
+                            RegistryInstance instance) {
+
+    public enum Action {
+        REGISTERED, CANCELLED
+    }
+}
@@ -0,0 +1,171 @@
+package ma.enset.discoveryservice.push;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams registry changes to subscribed clients as server-sent events: a {@link RegistrySnapshot} on
+ * connect, then one {@link RegistryDelta} per registration or cancellation, including evictions and
+ * changes replicated from peers.
+ * <p>
+ * The instance map is built from the registry events themselves rather than read from the registry,
+ * because registrations are announced before the registry is updated; a snapshot read from the registry
+ * could miss an instance whose delta was already sent.
+ * <p>
+ * Events are only queued on Eureka's threads. Each subscriber has a bounded queue written to its
+ * connection by its own virtual thread; a subscriber that falls {@code queueCapacity} events behind is
+ * disconnected, and reconnecting gives it a fresh snapshot. The streams never time out, so they are all
+ * completed when the application stops, before the web server waits for its requests to finish.
+ */
+public class RegistryDeltaBroadcaster implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(RegistryDeltaBroadcaster.class);
+
+    private final int queueCapacity;
+    private final Map<String, RegistryInstance> instances = new LinkedHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long sequence;
+    private volatile boolean running;
+
+    public RegistryDeltaBroadcaster(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    @EventListener
+    public synchronized void onRegistered(EurekaInstanceRegisteredEvent event) {
+        RegistryInstance instance = RegistryInstance.of(event.getInstanceInfo());
+        instances.put(key(instance.serviceId(), instance.instanceId()), instance);
+        publish(new RegistryDelta(++sequence, RegistryDelta.Action.REGISTERED,
+                instance.serviceId(), instance.instanceId(), instance));
+    }
+
+    @EventListener
+    public synchronized void onCanceled(EurekaInstanceCanceledEvent event) {
+        String serviceId = event.getAppName().toLowerCase();
+        instances.remove(key(serviceId, event.getServerId()));
+        publish(new RegistryDelta(++sequence, RegistryDelta.Action.CANCELLED,
+                serviceId, event.getServerId(), null));
+    }
+
+    public synchronized SseEmitter subscribe() {
+        Subscriber subscriber = new Subscriber(new SseEmitter(0L));
+        subscriber.offer(event("snapshot", sequence,
+                new RegistrySnapshot(sequence, List.copyOf(instances.values()))));
+        subscribers.add(subscriber);
+        subscriber.start();
+        return subscriber.emitter;
+    }
+
+    /**
+     * Lets clients tell a quiet stream from a dead connection.
+     */
+    @Scheduled(fixedRateString = "${registry.push.ping-interval:5s}")
+    public void ping() {
+        subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("ping")));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        subscribers.forEach(Subscriber::close);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void publish(RegistryDelta delta) {
+        SseEmitter.SseEventBuilder event = event("delta", delta.sequence(), delta);
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private static SseEmitter.SseEventBuilder event(String name, long id, Object data) {
+        return SseEmitter.event()
+                .id(String.valueOf(id))
+                .name(name)
+                .data(data, MediaType.APPLICATION_JSON);
+    }
+
+    private static String key(String serviceId, String instanceId) {
+        return serviceId + "/" + instanceId;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile boolean done;
+        private volatile boolean overflowed;
+        private volatile Thread sender;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::stop);
+            emitter.onTimeout(this::stop);
+            emitter.onError(e -> stop());
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("registry-changes-subscriber").start(this::drain);
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (!done && !queue.offer(event)) {
+                log.warn("Registry change subscriber fell {} events behind, disconnecting it", queueCapacity);
+                overflowed = true;
+                stop();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!done) {
+                    emitter.send(queue.take());
+                }
+            } catch (IOException e) {
+                stop();
+                emitter.completeWithError(e);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (overflowed) {
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            stop();
+            emitter.complete();
+        }
+
+        private void stop() {
+            done = true;
+            subscribers.remove(this);
+            queue.clear();
+            Thread current = sender;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
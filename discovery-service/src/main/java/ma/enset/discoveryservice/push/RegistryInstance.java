@@ -0,0 +1,25 @@
+package ma.enset.discoveryservice.push;
+
+import com.netflix.appinfo.InstanceInfo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The part of a registered {@link InstanceInfo} clients need to call the instance.
+ */
+public record RegistryInstance(String serviceId, String instanceId, String host, int port, boolean secure,
+                               String status, Map<String, String> metadata) {
+
+    public static RegistryInstance of(InstanceInfo info) {
+        boolean secure = info.isPortEnabled(InstanceInfo.PortType.SECURE);
+        return new RegistryInstance(
+                info.getAppName().toLowerCase(),
+                info.getId(),
+                info.getHostName(),
+                secure ? info.getSecurePort() : info.getPort(),
+                secure,
+                info.getStatus().name(),
+                new LinkedHashMap<>(info.getMetadata()));
+    }
+}
@@ -0,0 +1,16 @@
+package ma.enset.discoveryservice.push;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class RegistryPushConfig {
+
+    @Bean
+    RegistryDeltaBroadcaster registryDeltaBroadcaster(@Value("${registry.push.queue-capacity:256}") int queueCapacity) {
+        return new RegistryDeltaBroadcaster(queueCapacity);
+    }
+}
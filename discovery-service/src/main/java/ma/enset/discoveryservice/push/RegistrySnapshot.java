@@ -0,0 +1,9 @@
+package ma.enset.discoveryservice.push;
+
+import java.util.List;
+
+/**
+ * Every registered instance as of {@code sequence}, sent first on each new change stream.
+ */
+public record RegistrySnapshot(long sequence, List<RegistryInstance> instances) {
+}
@@ -0,0 +1,162 @@
+package ma.enset.discoveryservice.push;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures how long registrations, cancellations and evictions of several local instances take to reach
+ * a subscriber of {@code /registry/changes}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.server.eviction-interval-timer-in-ms=200",
+        "registry.push.ping-interval=1s"
+})
+class RegistryPropagationTests {
+    private static final String APP = "PROPAGATION-TEST";
+    private static final int INSTANCES = 5;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<Received> received = new LinkedBlockingQueue<>();
+    private Thread subscriber;
+
+    private record Received(long at, String event, JsonNode data) {
+    }
+
+    @BeforeEach
+    void subscribe() throws InterruptedException {
+        subscriber = Thread.ofVirtual().start(this::follow);
+        Received snapshot = received.poll(10, TimeUnit.SECONDS);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.event()).isEqualTo("snapshot");
+    }
+
+    /**
+     * Interrupting the follower alone would leave it blocked reading the stream; aborting the client closes
+     * the connection.
+     */
+    @AfterEach
+    void unsubscribe() throws InterruptedException {
+        httpClient.shutdownNow();
+        subscriber.interrupt();
+        subscriber.join(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void registrationsAndCancellationsPropagate() throws Exception {
+        List<Long> registerMillis = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            long start = System.nanoTime();
+            register("instance-" + i, 30);
+            registerMillis.add(awaitDelta("REGISTERED", "instance-" + i, start, Duration.ofSeconds(5)));
+        }
+        List<Long> cancelMillis = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            long start = System.nanoTime();
+            send(HttpRequest.newBuilder(apps("/instance-" + i)).DELETE());
+            cancelMillis.add(awaitDelta("CANCELLED", "instance-" + i, start, Duration.ofSeconds(5)));
+        }
+        assertThat(registerMillis).as("register propagation ms").allMatch(millis -> millis < 1000);
+        assertThat(cancelMillis).as("cancel propagation ms").allMatch(millis -> millis < 1000);
+    }
+
+    @Test
+    void evictionOfSilentInstancePropagates() throws Exception {
+        long start = System.nanoTime();
+        register("silent", 1);
+        awaitDelta("REGISTERED", "silent", start, Duration.ofSeconds(5));
+
+        long evictedMillis = awaitDelta("CANCELLED", "silent", start, Duration.ofSeconds(15));
+
+        // 1s lease without renewals, evicted by the 200ms eviction timer
+        assertThat(evictedMillis).as("eviction propagation ms").isLessThan(10_000);
+    }
+
+    private void register(String instanceId, int leaseSeconds) throws IOException, InterruptedException {
+        String instance = """
+                {"instance":{"instanceId":"%s","hostName":"localhost","app":"%s","ipAddr":"127.0.0.1",
+                "vipAddress":"propagation-test","status":"UP","port":{"$":8080,"@enabled":"true"},
+                "leaseInfo":{"renewalIntervalInSecs":%d,"durationInSecs":%d},
+                "dataCenterInfo":{"@class":"com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo","name":"MyOwn"}}}
+                """.formatted(instanceId, APP, leaseSeconds, leaseSeconds);
+        send(HttpRequest.newBuilder(apps(""))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(instance)));
+    }
+
+    private void send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isLessThan(300);
+    }
+
+    private URI apps(String path) {
+        return URI.create("http://localhost:" + port + "/eureka/apps/" + APP + path);
+    }
+
+    /**
+     * @return milliseconds from {@code start} until the matching delta was received
+     */
+    private long awaitDelta(String action, String instanceId, long start, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Received next = received.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next != null && "delta".equals(next.event())
+                    && action.equals(next.data().path("action").asText())
+                    && instanceId.equals(next.data().path("instanceId").asText())) {
+                return TimeUnit.NANOSECONDS.toMillis(next.at() - start);
+            }
+        }
+        throw new AssertionError(action + " of " + instanceId + " not received within " + timeout);
+    }
+
+    private void follow() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/registry/changes"))
+                .header("Accept", "text/event-stream")
+                .build();
+        try (Stream<String> lines = httpClient.send(request, HttpResponse.BodyHandlers.ofLines()).body()) {
+            String event = null;
+            StringBuilder data = new StringBuilder();
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (line.startsWith("event:")) {
+                    event = line.substring(6).strip();
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring(5).strip());
+                } else if (line.isEmpty() && !data.isEmpty()) {
+                    received.add(new Received(System.nanoTime(), event, objectMapper.readTree(data.toString())));
+                    event = null;
+                    data.setLength(0);
+                }
+            }
+        } catch (IOException e) {
+            // stream closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package ma.enset.gatewayservice;
 
+import ma.enset.commons.discovery.RegistryPushConfig;
+import ma.enset.commons.observability.ObservabilityConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
 import org.springframework.cloud.gateway.discovery.DiscoveryClientRouteDefinitionLocator;
 import org.springframework.cloud.gateway.discovery.DiscoveryLocatorProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import({ObservabilityConfig.class, RegistryPushConfig.class})
 public class GatewayServiceApplication {
 
     public static void main(String[] args) {
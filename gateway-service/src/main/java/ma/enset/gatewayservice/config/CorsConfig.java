@@ -18,6 +18,7 @@ public class CorsConfig {
         corsConfig.setAllowedOrigins(List.of("http://localhost:4200"));
         corsConfig.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         corsConfig.setAllowedHeaders(List.of("*"));
+        corsConfig.setExposedHeaders(List.of("X-Total-Count"));
         corsConfig.setAllowCredentials(true);
         corsConfig.setMaxAge(3600L);
 
@@ -0,0 +1,77 @@
+package ma.enset.gatewayservice.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Route lookup that only evaluates the predicates of the routes selected by the current
+ * {@link CompiledRouteTable}, instead of every route in order. Until a table has been compiled,
+ * lookups fall back to the default linear scan.
+ */
+public class CompiledRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping {
+    private static final Logger log = LoggerFactory.getLogger(CompiledRoutePredicateHandlerMapping.class);
+
+    private final Timer compiledMatchTimer;
+    private final Timer fallbackMatchTimer;
+    private volatile CompiledRouteTable table;
+
+    public CompiledRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                                RouteLocator routeLocator,
+                                                GlobalCorsProperties globalCorsProperties,
+                                                Environment environment,
+                                                MeterRegistry meterRegistry) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.compiledMatchTimer = matchTimer(meterRegistry, "compiled");
+        this.fallbackMatchTimer = matchTimer(meterRegistry, "fallback");
+    }
+
+    private static Timer matchTimer(MeterRegistry meterRegistry, String table) {
+        return Timer.builder("gateway.route.match")
+                .description("Time spent selecting the route of a request")
+                .tag("table", table)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void setTable(CompiledRouteTable table) {
+        this.table = table;
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        long start = System.nanoTime();
+        CompiledRouteTable current = table;
+        if (current == null) {
+            return super.lookupRoute(exchange)
+                    .doFinally(signal -> fallbackMatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }
+        return Flux.fromIterable(current.candidates(exchange.getRequest().getPath().pathWithinApplication()))
+                .concatMap(route -> Mono.just(route)
+                        .filterWhen(r -> {
+                            exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+                            return r.getPredicate().apply(exchange);
+                        })
+                        .onErrorResume(e -> {
+                            log.error("Error applying predicate for route: {}", route.getId(), e);
+                            return Mono.empty();
+                        }))
+                .next()
+                .doOnNext(route -> validateRoute(route, exchange))
+                .doFinally(signal -> compiledMatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+}
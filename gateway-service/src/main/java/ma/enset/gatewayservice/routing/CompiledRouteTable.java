@@ -0,0 +1,137 @@
+package ma.enset.gatewayservice.routing;
+
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prefix trie over the literal leading segments of every route's {@code Path} patterns.
+ * <p>
+ * Walking the request path yields the routes that can possibly match, in route order; only their
+ * predicates still need to be evaluated. Routes whose patterns have no literal prefix (or that have
+ * no {@code Path} predicate at all) are candidates for every request.
+ */
+public final class CompiledRouteTable {
+    private final List<Route> routes;
+    private final Node root;
+    private final int[] genericRoutes;
+
+    private CompiledRouteTable(List<Route> routes, Node root, int[] genericRoutes) {
+        this.routes = routes;
+        this.root = root;
+        this.genericRoutes = genericRoutes;
+    }
+
+    /**
+     * @param routes      routes in evaluation order, as returned by the route locator
+     * @param definitions definitions of those routes, by route id
+     */
+    public static CompiledRouteTable compile(List<Route> routes, Map<String, RouteDefinition> definitions) {
+        Node root = new Node();
+        List<Integer> generic = new ArrayList<>();
+        for (int i = 0; i < routes.size(); i++) {
+            List<List<String>> prefixes = literalPrefixes(definitions.get(routes.get(i).getId()));
+            if (prefixes == null) {
+                generic.add(i);
+                continue;
+            }
+            for (List<String> prefix : prefixes) {
+                Node node = root;
+                for (String segment : prefix) {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+                if (!node.routes.contains(i)) {
+                    node.routes.add(i);
+                }
+            }
+        }
+        root.freeze();
+        return new CompiledRouteTable(List.copyOf(routes), root, generic.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @return the literal prefix of each {@code Path} pattern, or {@code null} when the route has to be
+     * considered for every request
+     */
+    private static List<List<String>> literalPrefixes(RouteDefinition definition) {
+        if (definition == null) {
+            return null;
+        }
+        PredicateDefinition path = definition.getPredicates().stream()
+                .filter(p -> "Path".equals(p.getName()))
+                .findFirst()
+                .orElse(null);
+        if (path == null) {
+            return null;
+        }
+        List<List<String>> prefixes = new ArrayList<>();
+        for (Map.Entry<String, String> arg : path.getArgs().entrySet()) {
+            if (arg.getKey().startsWith("match")) {
+                continue;
+            }
+            String pattern = arg.getValue();
+            if (pattern == null || !pattern.startsWith("/")) {
+                return null;
+            }
+            List<String> prefix = new ArrayList<>();
+            for (String segment : pattern.substring(1).split("/")) {
+                if (segment.isEmpty() || segment.matches(".*[*?{}].*")) {
+                    break;
+                }
+                prefix.add(segment);
+            }
+            if (prefix.isEmpty()) {
+                return null;
+            }
+            prefixes.add(prefix);
+        }
+        return prefixes.isEmpty() ? null : prefixes;
+    }
+
+    public List<Route> candidates(PathContainer path) {
+        BitSet matched = new BitSet(routes.size());
+        Node node = root;
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathContainer.PathSegment segment)) {
+                continue;
+            }
+            node = node.children.get(segment.valueToMatch());
+            if (node == null) {
+                break;
+            }
+            for (int route : node.compiledRoutes) {
+                matched.set(route);
+            }
+        }
+        for (int route : genericRoutes) {
+            matched.set(route);
+        }
+        List<Route> candidates = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            candidates.add(routes.get(i));
+        }
+        return candidates;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final List<Integer> routes = new ArrayList<>();
+        int[] compiledRoutes;
+
+        void freeze() {
+            compiledRoutes = routes.stream().mapToInt(Integer::intValue).toArray();
+            children.values().forEach(Node::freeze);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ma.enset.gatewayservice.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Compiled routing mode, enabled with {@code gateway.compiled-routes.enabled=true}. Replaces the
+ * gateway's route handler mapping, and {@link CompiledRoutesEnvironmentPostProcessor} disables the
+ * stock route refresh listener so routes are no longer refreshed on every Eureka registry fetch.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.compiled-routes", name = "enabled", havingValue = "true")
+public class CompiledRoutesConfig {
+
+    @Bean
+    CompiledRoutePredicateHandlerMapping compiledRoutePredicateHandlerMapping(
+            FilteringWebHandler webHandler,
+            RouteLocator routeLocator,
+            GlobalCorsProperties globalCorsProperties,
+            Environment environment,
+            MeterRegistry meterRegistry
+    ) {
+        return new CompiledRoutePredicateHandlerMapping(
+                webHandler, routeLocator, globalCorsProperties, environment, meterRegistry);
+    }
+
+    @Bean
+    RouteTableRefresher routeTableRefresher(
+            RouteLocator routeLocator,
+            RouteDefinitionLocator routeDefinitionLocator,
+            ReactiveDiscoveryClient discoveryClient,
+            ApplicationEventPublisher applicationEventPublisher,
+            CompiledRoutePredicateHandlerMapping compiledRoutePredicateHandlerMapping
+    ) {
+        return new RouteTableRefresher(routeLocator, routeDefinitionLocator, discoveryClient,
+                applicationEventPublisher, compiledRoutePredicateHandlerMapping);
+    }
+}
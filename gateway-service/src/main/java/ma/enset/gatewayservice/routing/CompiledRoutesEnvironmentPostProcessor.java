@@ -0,0 +1,25 @@
+package ma.enset.gatewayservice.routing;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Turns off the gateway's stock route refresh listener when the compiled routing mode is on, since
+ * {@link RouteTableRefresher} takes over refreshing routes on registry changes. An explicit
+ * {@code spring.cloud.gateway.server.webflux.route-refresh-listener.enabled} setting still wins.
+ */
+public class CompiledRoutesEnvironmentPostProcessor implements EnvironmentPostProcessor {
+    static final String ROUTE_REFRESH_LISTENER_ENABLED = "spring.cloud.gateway.server.webflux.route-refresh-listener.enabled";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("gateway.compiled-routes.enabled", Boolean.class, false)) {
+            environment.getPropertySources().addLast(new MapPropertySource("compiledRoutes",
+                    Map.of(ROUTE_REFRESH_LISTENER_ENABLED, false)));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ma.enset.gatewayservice.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link CompiledRouteTable} in sync with the gateway routes.
+ * <p>
+ * Routes are only refreshed when the set of registered services changes, not on every registry fetch,
+ * and a new table is only compiled and swapped in when the route definitions actually differ.
+ */
+public class RouteTableRefresher {
+    private static final Logger log = LoggerFactory.getLogger(RouteTableRefresher.class);
+    private static final Comparator<RouteDefinition> BY_ID = Comparator.comparing(RouteDefinition::getId);
+
+    private final RouteLocator routeLocator;
+    private final RouteDefinitionLocator routeDefinitionLocator;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CompiledRoutePredicateHandlerMapping handlerMapping;
+    private final AtomicReference<List<String>> knownServices = new AtomicReference<>(List.of());
+    private volatile List<RouteDefinition> compiledDefinitions;
+
+    public RouteTableRefresher(RouteLocator routeLocator,
+                               RouteDefinitionLocator routeDefinitionLocator,
+                               ReactiveDiscoveryClient discoveryClient,
+                               ApplicationEventPublisher applicationEventPublisher,
+                               CompiledRoutePredicateHandlerMapping handlerMapping) {
+        this.routeLocator = routeLocator;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.discoveryClient = discoveryClient;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.handlerMapping = handlerMapping;
+    }
+
+    @EventListener(HeartbeatEvent.class)
+    public void onHeartbeat() {
+        discoveryClient.getServices().sort().collectList().subscribe(services -> {
+            if (!services.equals(knownServices.getAndSet(services))) {
+                log.info("Registered services changed to {}, refreshing routes", services);
+                applicationEventPublisher.publishEvent(new RefreshRoutesEvent(this));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        recompile();
+    }
+
+    @EventListener
+    public void onRoutesRefreshed(RefreshRoutesResultEvent event) {
+        if (event.isSuccess()) {
+            recompile();
+        }
+    }
+
+    private void recompile() {
+        Mono.zip(routeLocator.getRoutes().collectList(),
+                        routeDefinitionLocator.getRouteDefinitions().sort(BY_ID).collectList())
+                .subscribe(routesAndDefinitions -> {
+                    List<RouteDefinition> definitions = routesAndDefinitions.getT2();
+                    if (definitions.equals(compiledDefinitions)) {
+                        return;
+                    }
+                    Map<String, RouteDefinition> byId = definitions.stream()
+                            .collect(Collectors.toMap(RouteDefinition::getId, Function.identity(), (a, b) -> a));
+                    handlerMapping.setTable(CompiledRouteTable.compile(routesAndDefinitions.getT1(), byId));
+                    compiledDefinitions = definitions;
+                    log.info("Compiled route table with {} routes", routesAndDefinitions.getT1().size());
+                }, e -> log.error("Error compiling route table: {}", e.getMessage()));
+    }
+}
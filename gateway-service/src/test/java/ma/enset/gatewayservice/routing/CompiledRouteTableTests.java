@@ -0,0 +1,57 @@
+package ma.enset.gatewayservice.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.server.PathContainer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledRouteTableTests {
+
+    private static Route route(String id) {
+        return Route.async().id(id).uri("lb://" + id).predicate(exchange -> true).build();
+    }
+
+    private static CompiledRouteTable compile(RouteDefinition... definitions) {
+        List<Route> routes = Arrays.stream(definitions).map(d -> route(d.getId())).toList();
+        Map<String, RouteDefinition> byId = Arrays.stream(definitions)
+                .collect(Collectors.toMap(RouteDefinition::getId, Function.identity()));
+        return CompiledRouteTable.compile(routes, byId);
+    }
+
+    private static List<String> candidates(CompiledRouteTable table, String path) {
+        return table.candidates(PathContainer.parsePath(path)).stream().map(Route::getId).toList();
+    }
+
+    @Test
+    void selectsRoutesByLiteralPrefix() {
+        CompiledRouteTable table = compile(
+                new RouteDefinition("customers=lb://customer-service,Path=/customer-service/**"),
+                new RouteDefinition("products=lb://inventory-service,Path=/inventory-service/**"),
+                new RouteDefinition("bills=lb://billing-service,Path=/billing-service/bills/**"));
+
+        assertThat(candidates(table, "/customer-service/api/customers/1")).containsExactly("customers");
+        assertThat(candidates(table, "/billing-service/bills/full/1")).containsExactly("bills");
+        assertThat(candidates(table, "/billing-service/productItems")).isEmpty();
+        assertThat(candidates(table, "/unknown")).isEmpty();
+    }
+
+    @Test
+    void keepsRouteOrderAndGenericRoutes() {
+        CompiledRouteTable table = compile(
+                new RouteDefinition("specific=lb://a,Path=/api/customers/{id}"),
+                new RouteDefinition("wildcard=lb://b,Path=/{service}/**"),
+                new RouteDefinition("broad=lb://c,Path=/api/**"),
+                new RouteDefinition("host=lb://d,Host=**.example.org"));
+
+        assertThat(candidates(table, "/api/customers/1")).containsExactly("specific", "wildcard", "broad", "host");
+        assertThat(candidates(table, "/other/path")).containsExactly("wildcard", "host");
+    }
+}
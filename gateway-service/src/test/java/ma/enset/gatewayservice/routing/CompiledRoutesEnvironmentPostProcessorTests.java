@@ -0,0 +1,31 @@
+package ma.enset.gatewayservice.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static ma.enset.gatewayservice.routing.CompiledRoutesEnvironmentPostProcessor.ROUTE_REFRESH_LISTENER_ENABLED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledRoutesEnvironmentPostProcessorTests {
+    private final CompiledRoutesEnvironmentPostProcessor postProcessor = new CompiledRoutesEnvironmentPostProcessor();
+
+    @Test
+    void disablesTheStockRefreshListenerOnlyInCompiledMode() {
+        MockEnvironment compiled = new MockEnvironment().withProperty("gateway.compiled-routes.enabled", "true");
+        postProcessor.postProcessEnvironment(compiled, null);
+        assertThat(compiled.getProperty(ROUTE_REFRESH_LISTENER_ENABLED, Boolean.class)).isFalse();
+
+        MockEnvironment stock = new MockEnvironment().withProperty("gateway.compiled-routes.enabled", "false");
+        postProcessor.postProcessEnvironment(stock, null);
+        assertThat(stock.getProperty(ROUTE_REFRESH_LISTENER_ENABLED)).isNull();
+    }
+
+    @Test
+    void explicitListenerSettingWins() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("gateway.compiled-routes.enabled", "true")
+                .withProperty(ROUTE_REFRESH_LISTENER_ENABLED, "true");
+        postProcessor.postProcessEnvironment(environment, null);
+        assertThat(environment.getProperty(ROUTE_REFRESH_LISTENER_ENABLED, Boolean.class)).isTrue();
+    }
+}
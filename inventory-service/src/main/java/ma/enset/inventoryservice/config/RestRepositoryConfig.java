@@ -1,15 +1,39 @@
 package ma.enset.inventoryservice.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import ma.enset.inventoryservice.entities.Product;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
 import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 
+import java.util.List;
+
 @Configuration
 public class RestRepositoryConfig implements RepositoryRestConfigurer {
+    /**
+     * Plain JSON arrays of projection views without HAL links, negotiated with {@code Accept} on list endpoints.
+     */
+    public static final String LEAN_JSON_VALUE = "application/vnd.enset.lean+json";
+
+    private final ObjectMapper objectMapper;
+
+    public RestRepositoryConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
     @Override
     public void configureRepositoryRestConfiguration(RepositoryRestConfiguration config, CorsRegistry cors) {
         config.exposeIdsFor(Product.class);
     }
+
+    @Override
+    public void configureHttpMessageConverters(List<HttpMessageConverter<?>> messageConverters) {
+        MappingJackson2HttpMessageConverter lean = new MappingJackson2HttpMessageConverter(objectMapper);
+        lean.setSupportedMediaTypes(List.of(MediaType.parseMediaType(LEAN_JSON_VALUE)));
+        messageConverters.add(0, lean);
+    }
 }
@@ -0,0 +1,40 @@
+package ma.enset.inventoryservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.enset.inventoryservice.entities.Product;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Seeds three demo products once the application is ready.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SampleDataLoader {
+    private final ProductRepository productRepository;
+
+    @Value("${app.seed.enabled:false}")
+    private boolean enabled;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled || productRepository.count() > 0) {
+            return;
+        }
+        List<Product> products = productRepository.saveAll(List.of(
+                Product.builder().name("Computer Desk Top HP").price(7500).quantity(12).build(),
+                Product.builder().name("Printer Epson").price(1000).quantity(30).build(),
+                Product.builder().name("MacBook Pro Lap Top").price(1800).quantity(4).build()
+        ));
+        log.info("Seeded {} products", products.size());
+    }
+}
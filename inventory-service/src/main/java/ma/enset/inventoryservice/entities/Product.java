@@ -1,14 +1,19 @@
 package ma.enset.inventoryservice.entities;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import jakarta.persistence.*;
 import lombok.*;
+import ma.enset.inventoryservice.events.ProductChangeListener;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.UUID;
 
+/**
+ * Updates only write the columns that changed, so that a product edit leaves a quantity it did not change to the
+ * relative updates of the reservation engine.
+ */
 @Entity
+@DynamicUpdate
+@EntityListeners(ProductChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
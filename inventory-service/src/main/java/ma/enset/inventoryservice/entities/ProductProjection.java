@@ -0,0 +1,13 @@
+package ma.enset.inventoryservice.entities;
+
+import org.springframework.data.rest.core.config.Projection;
+
+import java.util.UUID;
+
+@Projection(name = "lean", types = Product.class)
+public interface ProductProjection {
+    UUID getId();
+    String getName();
+    double getPrice();
+    int getQuantity();
+}
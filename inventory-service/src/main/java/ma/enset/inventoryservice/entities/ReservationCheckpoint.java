@@ -0,0 +1,23 @@
+package ma.enset.inventoryservice.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Sequence of the last reservation log record whose stock change has been written to {@link Product},
+ * updated in the same transaction as the products.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ReservationCheckpoint {
+    @Id
+    private String id;
+    private long lastSequence;
+}
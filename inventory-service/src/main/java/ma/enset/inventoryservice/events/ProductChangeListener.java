@@ -0,0 +1,26 @@
+package ma.enset.inventoryservice.events;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import ma.enset.commons.events.EntityChangePublisher;
+import ma.enset.inventoryservice.entities.Product;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductChangeListener {
+    private final EntityChangePublisher entityChangePublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Product product) {
+        entityChangePublisher.saved("Product", product.getId(), product);
+    }
+
+    @PostRemove
+    public void removed(Product product) {
+        entityChangePublisher.deleted("Product", product.getId());
+    }
+}
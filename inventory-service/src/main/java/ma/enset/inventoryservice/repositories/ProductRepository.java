@@ -1,11 +1,48 @@
 package ma.enset.inventoryservice.repositories;
 
 import ma.enset.inventoryservice.entities.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @RepositoryRestResource
 public interface ProductRepository extends JpaRepository<Product, UUID> {
-}
\ No newline at end of file
+
+    /**
+     * One page of {@code type} views, selecting only the columns the view reads.
+     */
+    @RestResource(exported = false)
+    <T> Page<T> findAllBy(Pageable pageable, Class<T> type);
+
+    @RestResource(exported = false)
+    @Query("select p.quantity from Product p where p.id = :id")
+    Optional<Integer> findQuantityById(UUID id);
+
+    /**
+     * Adds {@code delta} to the stored quantity in place, so concurrent writers never overwrite each other.
+     */
+    @RestResource(exported = false)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.quantity = p.quantity + :delta where p.id = :id")
+    int addQuantity(UUID id, int delta);
+
+    /**
+     * Same as {@link #addQuantity}, unless the quantity would become negative.
+     *
+     * @return 0 when the product is unknown or has less than {@code -delta} in stock
+     */
+    @RestResource(exported = false)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.quantity = p.quantity + :delta where p.id = :id and p.quantity + :delta >= 0")
+    int addQuantityIfAvailable(UUID id, int delta);
+}
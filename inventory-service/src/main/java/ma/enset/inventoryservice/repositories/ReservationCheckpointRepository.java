@@ -0,0 +1,9 @@
+package ma.enset.inventoryservice.repositories;
+
+import ma.enset.inventoryservice.entities.ReservationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface ReservationCheckpointRepository extends JpaRepository<ReservationCheckpoint, String> {
+}
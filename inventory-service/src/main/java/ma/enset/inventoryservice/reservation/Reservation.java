@@ -0,0 +1,8 @@
+package ma.enset.inventoryservice.reservation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record Reservation(UUID id, List<ReservationLine> lines, Instant expiresAt) {
+}
@@ -0,0 +1,64 @@
+package ma.enset.inventoryservice.reservation;
+
+import ma.enset.commons.events.EntityChangePublisher;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import ma.enset.inventoryservice.repositories.ReservationCheckpointRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * In-memory stock reservations, recovered from the product table and the reservation log before the
+ * application serves requests. Off unless {@code inventory.reservations.enabled=true}; stock updates then go
+ * straight to the database.
+ * <p>
+ * Only enable it on a single inventory instance: each instance grants holds from its own in-memory ledger,
+ * so two instances would both hand out the same stock. The write-behind checkpoint is kept per reservation
+ * log, so that several logs writing to the same product table recover correctly, but that does not make
+ * their ledgers agree.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReservationProperties.class)
+@ConditionalOnProperty(prefix = "inventory.reservations", name = "enabled", havingValue = "true")
+public class ReservationConfig {
+
+    @Bean
+    StockFlushWriter stockFlushWriter(ProductRepository productRepository,
+                                      ReservationCheckpointRepository checkpointRepository,
+                                      EntityChangePublisher entityChangePublisher,
+                                      ReservationProperties properties) throws IOException {
+        return new StockFlushWriter(productRepository, checkpointRepository, entityChangePublisher,
+                checkpointId(Path.of(properties.getLogPath())));
+    }
+
+    @Bean
+    ReservationEngine reservationEngine(ReservationProperties properties, StockFlushWriter stockFlushWriter)
+            throws IOException {
+        ReservationLog reservationLog = new ReservationLog(Path.of(properties.getLogPath()), properties.isFsync());
+        ReservationEngine engine = new ReservationEngine(reservationLog, stockFlushWriter, properties);
+        engine.recover();
+        return engine;
+    }
+
+    /**
+     * Id of the checkpoint row of this reservation log, kept in a file next to it.
+     */
+    static String checkpointId(Path logPath) throws IOException {
+        Path idFile = logPath.resolveSibling(logPath.getFileName() + ".id");
+        if (Files.exists(idFile)) {
+            return Files.readString(idFile).trim();
+        }
+        String id = "reservations-" + UUID.randomUUID();
+        Files.createDirectories(idFile.toAbsolutePath().getParent());
+        Files.writeString(idFile, id);
+        return id;
+    }
+}
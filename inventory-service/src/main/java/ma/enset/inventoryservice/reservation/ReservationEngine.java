@@ -0,0 +1,397 @@
+package ma.enset.inventoryservice.reservation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stock reservations served from memory. Holds, confirmations, releases and stock adjustments update the
+ * {@link StockLedger} and are appended to the {@link ReservationLog} before they are acknowledged; the
+ * product table only receives the net stock change per product, in batches written behind by
+ * {@link #flush()}. On startup, {@link #recover()} rebuilds the counters from the product table and the log.
+ */
+@Slf4j
+public class ReservationEngine implements Closeable {
+    private final StockLedger ledger = new StockLedger();
+    private final ReservationLog reservationLog;
+    private final StockFlushWriter writer;
+    private final ReservationProperties properties;
+    private final Map<UUID, Reservation> active = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> pending = new ConcurrentHashMap<>();
+    /**
+     * Shared by operations appending a stock change, exclusive while a batch is drained together
+     * with the log sequence it covers.
+     */
+    private final ReadWriteLock drainLock = new ReentrantReadWriteLock();
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private Thread expiryThread;
+
+    private record Expiry(UUID reservationId, long expiresAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAt, ((Expiry) other).expiresAt);
+        }
+    }
+
+    public ReservationEngine(ReservationLog reservationLog, StockFlushWriter writer, ReservationProperties properties) {
+        this.reservationLog = reservationLog;
+        this.writer = writer;
+        this.properties = properties;
+    }
+
+    /**
+     * Loads stock from the product table, replays the log on top of it, writes the replayed stock changes
+     * the table is missing and compacts the log down to the holds that are still live.
+     */
+    public void recover() throws IOException {
+        writer.loadQuantities().forEach(ledger::register);
+        long checkpoint = writer.checkpoint();
+
+        Map<UUID, List<ReservationLog.Entry>> holds = new LinkedHashMap<>();
+        Map<UUID, Integer> unwritten = new HashMap<>();
+        for (ReservationLog.Entry entry : reservationLog.replay()) {
+            switch (entry.type()) {
+                case HOLD -> holds.computeIfAbsent(entry.reservationId(), id -> new ArrayList<>()).add(entry);
+                case CONFIRM -> {
+                    List<ReservationLog.Entry> lines = holds.remove(entry.reservationId());
+                    if (lines != null && entry.sequence() > checkpoint) {
+                        lines.forEach(line -> unwritten.merge(line.productId(), -line.quantity(), Integer::sum));
+                    }
+                }
+                case RELEASE -> holds.remove(entry.reservationId());
+                case ADJUST -> {
+                    if (entry.sequence() > checkpoint) {
+                        unwritten.merge(entry.productId(), entry.quantity(), Integer::sum);
+                    }
+                }
+            }
+        }
+        reservationLog.advanceTo(checkpoint);
+
+        unwritten.forEach((productId, delta) -> {
+            int slot = ledger.slot(productId);
+            if (slot >= 0 && delta != 0 && ledger.adjust(slot, delta)) {
+                pending.merge(productId, delta, Integer::sum);
+            }
+        });
+        flush();
+
+        long now = System.currentTimeMillis();
+        holds.forEach((reservationId, entries) -> {
+            long expiresAt = entries.get(0).expiresAt();
+            List<ReservationLine> lines = entries.stream()
+                    .map(entry -> new ReservationLine(entry.productId(), entry.quantity()))
+                    .toList();
+            if (expiresAt > now && holdAll(lines, slots(lines)) == lines.size()) {
+                active.put(reservationId, new Reservation(reservationId, lines, Instant.ofEpochMilli(expiresAt)));
+                expiries.add(new Expiry(reservationId, expiresAt));
+            }
+        });
+        compact();
+
+        expiryThread = Thread.ofVirtual().name("reservation-expiry").start(this::expireHolds);
+        log.info("Recovered stock of {} products with {} live reservations from {} unwritten stock changes",
+                ledger.size(), active.size(), unwritten.size());
+    }
+
+    /**
+     * Holds every line or none of them.
+     *
+     * @throws ReservationException when a product is unknown or has less stock available than requested
+     */
+    public Reservation reserve(List<ReservationLine> requested, Duration ttl) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (ReservationLine line : requested) {
+            if (line.productId() == null || line.quantity() <= 0) {
+                throw new IllegalArgumentException("Invalid reservation line " + line);
+            }
+            quantities.merge(line.productId(), line.quantity(), Integer::sum);
+        }
+        if (quantities.isEmpty()) {
+            throw new IllegalArgumentException("A reservation needs at least one line");
+        }
+        List<ReservationLine> lines = quantities.entrySet().stream()
+                .map(entry -> new ReservationLine(entry.getKey(), entry.getValue()))
+                .toList();
+        int[] slots = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            slots[i] = slotFor(lines.get(i).productId());
+            if (slots[i] < 0) {
+                throw new ReservationException(ReservationException.Reason.UNKNOWN_PRODUCT, lines.get(i).productId());
+            }
+        }
+
+        Duration holdFor = ttl == null ? properties.getDefaultTtl()
+                : ttl.compareTo(properties.getMaxTtl()) > 0 ? properties.getMaxTtl() : ttl;
+        long expiresAt = System.currentTimeMillis() + holdFor.toMillis();
+        Reservation reservation = new Reservation(UUID.randomUUID(), lines, Instant.ofEpochMilli(expiresAt));
+        long sequence;
+        drainLock.readLock().lock();
+        try {
+            int held = holdAll(lines, slots);
+            if (held < lines.size()) {
+                throw new ReservationException(ReservationException.Reason.INSUFFICIENT_STOCK,
+                        lines.get(held).productId());
+            }
+            try {
+                sequence = reservationLog.append(lines.stream()
+                        .map(line -> ReservationLog.Entry.hold(reservation.id(), line.productId(), line.quantity(), expiresAt))
+                        .toList());
+            } catch (IOException e) {
+                releaseAll(lines, slots, lines.size());
+                throw new UncheckedIOException(e);
+            }
+            active.put(reservation.id(), reservation);
+        } finally {
+            drainLock.readLock().unlock();
+        }
+        sync(sequence);
+        expiries.add(new Expiry(reservation.id(), expiresAt));
+        return reservation;
+    }
+
+    /**
+     * Turns a live reservation into a stock decrease, written to the product table with the next batch.
+     *
+     * @return false when the reservation is unknown, already released or expired
+     */
+    public boolean confirm(UUID reservationId) {
+        long sequence;
+        drainLock.readLock().lock();
+        try {
+            Reservation reservation = active.remove(reservationId);
+            if (reservation == null) {
+                return false;
+            }
+            try {
+                sequence = reservationLog.append(ReservationLog.Entry.confirm(reservationId));
+            } catch (IOException e) {
+                active.put(reservationId, reservation);
+                throw new UncheckedIOException(e);
+            }
+            for (ReservationLine line : reservation.lines()) {
+                ledger.commit(ledger.slot(line.productId()), line.quantity());
+                pending.merge(line.productId(), -line.quantity(), Integer::sum);
+            }
+        } finally {
+            drainLock.readLock().unlock();
+        }
+        sync(sequence);
+        return true;
+    }
+
+    /**
+     * Returns the held stock of a live reservation. Not synced to disk: a release lost in a crash
+     * only keeps the hold until it expires.
+     *
+     * @return false when the reservation is unknown, confirmed or already released
+     */
+    public boolean release(UUID reservationId) {
+        Reservation reservation = active.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        try {
+            reservationLog.append(ReservationLog.Entry.release(reservationId));
+        } catch (IOException e) {
+            log.warn("Could not log release of reservation {}: {}", reservationId, e.getMessage());
+        }
+        for (ReservationLine line : reservation.lines()) {
+            ledger.release(ledger.slot(line.productId()), line.quantity());
+        }
+        return true;
+    }
+
+    /**
+     * Adds {@code delta} to the available stock of a product, written to the product table with the next batch.
+     *
+     * @return the new stock level, empty when the product is unknown
+     * @throws ReservationException when the available stock would become negative
+     */
+    public Optional<StockLevel> adjust(UUID productId, int delta) {
+        int slot = slotFor(productId);
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        long sequence;
+        drainLock.readLock().lock();
+        try {
+            if (!ledger.adjust(slot, delta)) {
+                throw new ReservationException(ReservationException.Reason.INSUFFICIENT_STOCK, productId);
+            }
+            try {
+                sequence = reservationLog.append(ReservationLog.Entry.adjust(productId, delta));
+            } catch (IOException e) {
+                ledger.adjust(slot, -delta);
+                throw new UncheckedIOException(e);
+            }
+            pending.merge(productId, delta, Integer::sum);
+        } finally {
+            drainLock.readLock().unlock();
+        }
+        sync(sequence);
+        return Optional.of(level(productId, slot));
+    }
+
+    public Optional<StockLevel> stock(UUID productId) {
+        int slot = slotFor(productId);
+        return slot < 0 ? Optional.empty() : Optional.of(level(productId, slot));
+    }
+
+    public Optional<Reservation> reservation(UUID reservationId) {
+        return Optional.ofNullable(active.get(reservationId));
+    }
+
+    /**
+     * Writes the stock changes accumulated since the last batch in one transaction. A failed batch is
+     * merged back and retried with the next one.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservations.flush-interval:500ms}")
+    public synchronized void flush() {
+        Map<UUID, Integer> batch = new HashMap<>();
+        long sequence;
+        drainLock.writeLock().lock();
+        try {
+            sequence = reservationLog.lastSequence();
+            for (UUID productId : pending.keySet()) {
+                Integer delta = pending.remove(productId);
+                if (delta != null && delta != 0) {
+                    batch.put(productId, delta);
+                }
+            }
+        } finally {
+            drainLock.writeLock().unlock();
+        }
+        if (!batch.isEmpty()) {
+            try {
+                reservationLog.sync(sequence);
+                writer.apply(batch, sequence);
+            } catch (Exception e) {
+                log.warn("Could not write stock of {} products, retrying with the next batch: {}",
+                        batch.size(), e.getMessage());
+                batch.forEach((productId, delta) -> pending.merge(productId, delta, Integer::sum));
+                return;
+            }
+        }
+        try {
+            if (reservationLog.size() > properties.getCompactAfter().toBytes()) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Could not compact the reservation log: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (expiryThread != null) {
+            expiryThread.interrupt();
+        }
+        flush();
+        reservationLog.close();
+    }
+
+    /**
+     * Rewrites the log with only the live holds, once every logged stock change is in the product table.
+     */
+    private void compact() throws IOException {
+        drainLock.writeLock().lock();
+        try {
+            if (!pending.isEmpty()) {
+                return;
+            }
+            List<ReservationLog.Entry> entries = new ArrayList<>();
+            for (Reservation reservation : active.values()) {
+                long expiresAt = reservation.expiresAt().toEpochMilli();
+                reservation.lines().forEach(line -> entries.add(
+                        ReservationLog.Entry.hold(reservation.id(), line.productId(), line.quantity(), expiresAt)));
+            }
+            reservationLog.rewrite(entries);
+        } finally {
+            drainLock.writeLock().unlock();
+        }
+    }
+
+    private void expireHolds() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Expiry expiry = expiries.take();
+                if (release(expiry.reservationId())) {
+                    log.debug("Reservation {} expired", expiry.reservationId());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Could not expire reservation: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int slotFor(UUID productId) {
+        int slot = ledger.slot(productId);
+        if (slot >= 0) {
+            return slot;
+        }
+        OptionalInt quantity = writer.loadQuantity(productId);
+        return quantity.isPresent() ? ledger.register(productId, quantity.getAsInt()) : -1;
+    }
+
+    private int[] slots(List<ReservationLine> lines) {
+        return lines.stream().mapToInt(line -> ledger.slot(line.productId())).toArray();
+    }
+
+    /**
+     * @return the number of lines held; when not all of them, the ones held are released again
+     */
+    private int holdAll(List<ReservationLine> lines, int[] slots) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (slots[i] < 0 || !ledger.hold(slots[i], lines.get(i).quantity())) {
+                releaseAll(lines, slots, i);
+                return i;
+            }
+        }
+        return lines.size();
+    }
+
+    private void releaseAll(List<ReservationLine> lines, int[] slots, int count) {
+        for (int i = 0; i < count; i++) {
+            ledger.release(slots[i], lines.get(i).quantity());
+        }
+    }
+
+    private StockLevel level(UUID productId, int slot) {
+        return new StockLevel(productId, ledger.available(slot), ledger.held(slot));
+    }
+
+    private void sync(long sequence) {
+        try {
+            reservationLog.sync(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ma.enset.inventoryservice.reservation;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class ReservationException extends RuntimeException {
+    public enum Reason {UNKNOWN_PRODUCT, INSUFFICIENT_STOCK}
+
+    private final Reason reason;
+    private final UUID productId;
+
+    public ReservationException(Reason reason, UUID productId) {
+        super(String.format("%s: %s", reason, productId));
+        this.reason = reason;
+        this.productId = productId;
+    }
+}
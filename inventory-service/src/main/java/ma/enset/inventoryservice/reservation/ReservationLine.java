@@ -0,0 +1,6 @@
+package ma.enset.inventoryservice.reservation;
+
+import java.util.UUID;
+
+public record ReservationLine(UUID productId, int quantity) {
+}
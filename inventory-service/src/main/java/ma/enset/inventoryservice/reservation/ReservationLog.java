@@ -0,0 +1,243 @@
+package ma.enset.inventoryservice.reservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of fixed-size, checksummed records. Appends are numbered with an increasing sequence;
+ * {@link #sync(long)} forces the file to disk once for every append that completed before it, so
+ * concurrent writers share a single fsync. A torn record at the end of the file is dropped on replay.
+ */
+public class ReservationLog implements Closeable {
+    static final int RECORD_SIZE = 4 + 1 + 8 + 16 + 16 + 4 + 8;
+
+    public enum Type {HOLD, CONFIRM, RELEASE, ADJUST}
+
+    /**
+     * @param quantity held quantity for {@code HOLD}, stock delta for {@code ADJUST}
+     */
+    public record Entry(Type type, long sequence, UUID reservationId, UUID productId, int quantity, long expiresAt) {
+
+        public static Entry hold(UUID reservationId, UUID productId, int quantity, long expiresAt) {
+            return new Entry(Type.HOLD, 0, reservationId, productId, quantity, expiresAt);
+        }
+
+        public static Entry confirm(UUID reservationId) {
+            return new Entry(Type.CONFIRM, 0, reservationId, null, 0, 0);
+        }
+
+        public static Entry release(UUID reservationId) {
+            return new Entry(Type.RELEASE, 0, reservationId, null, 0, 0);
+        }
+
+        public static Entry adjust(UUID productId, int delta) {
+            return new Entry(Type.ADJUST, 0, null, productId, delta, 0);
+        }
+    }
+
+    private final Path path;
+    private final boolean fsync;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private volatile FileChannel channel;
+    private volatile long lastSequence;
+    private volatile long syncedSequence;
+
+    public ReservationLog(Path path, boolean fsync) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = open(path);
+    }
+
+    /**
+     * Reads every intact record, truncating the file after the last one.
+     */
+    public List<Entry> replay() throws IOException {
+        synchronized (writeLock) {
+            List<Entry> entries = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+            long valid = 0;
+            while (true) {
+                buffer.clear();
+                if (channel.read(buffer, valid) < RECORD_SIZE) {
+                    return truncate(entries, valid);
+                }
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    Entry entry = decode(buffer);
+                    if (entry == null) {
+                        return truncate(entries, valid);
+                    }
+                    entries.add(entry);
+                    valid += RECORD_SIZE;
+                    lastSequence = Math.max(lastSequence, entry.sequence());
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes later appends number their records after {@code sequence}.
+     */
+    public void advanceTo(long sequence) {
+        synchronized (writeLock) {
+            lastSequence = Math.max(lastSequence, sequence);
+            syncedSequence = Math.max(syncedSequence, sequence);
+        }
+    }
+
+    /**
+     * Appends the entries in one write.
+     *
+     * @return the sequence of the last entry
+     */
+    public long append(List<Entry> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * entries.size());
+        synchronized (writeLock) {
+            long sequence = lastSequence;
+            for (Entry entry : entries) {
+                encode(buffer, entry, ++sequence);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            lastSequence = sequence;
+            return sequence;
+        }
+    }
+
+    public long append(Entry entry) throws IOException {
+        return append(List.of(entry));
+    }
+
+    /**
+     * Returns once every record up to {@code sequence} is on disk, or right away when fsync is disabled.
+     */
+    public void sync(long sequence) throws IOException {
+        if (!fsync || syncedSequence >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            long upTo = lastSequence;
+            channel.force(false);
+            syncedSequence = upTo;
+        }
+    }
+
+    /**
+     * Atomically replaces the log with the given entries, numbered after the current last sequence.
+     */
+    public void rewrite(List<Entry> entries) throws IOException {
+        synchronized (writeLock) {
+            synchronized (syncLock) {
+                Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+                long sequence = lastSequence;
+                try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+                    for (Entry entry : entries) {
+                        buffer.clear();
+                        encode(buffer, entry, ++sequence);
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
+                        }
+                    }
+                    out.force(true);
+                }
+                channel.close();
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = open(path);
+                lastSequence = sequence;
+                syncedSequence = sequence;
+            }
+        }
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    private List<Entry> truncate(List<Entry> entries, long valid) throws IOException {
+        channel.truncate(valid);
+        channel.position(valid);
+        return entries;
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    private static void encode(ByteBuffer buffer, Entry entry, long sequence) {
+        int start = buffer.position();
+        buffer.putInt(0);
+        buffer.put((byte) entry.type().ordinal());
+        buffer.putLong(sequence);
+        putUuid(buffer, entry.reservationId());
+        putUuid(buffer, entry.productId());
+        buffer.putInt(entry.quantity());
+        buffer.putLong(entry.expiresAt());
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start + 4, RECORD_SIZE - 4);
+        buffer.putInt(start, (int) crc.getValue());
+    }
+
+    private static Entry decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        int checksum = buffer.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start + 4, RECORD_SIZE - 4);
+        int type = buffer.get();
+        if ((int) crc.getValue() != checksum || type < 0 || type >= Type.values().length) {
+            return null;
+        }
+        return new Entry(Type.values()[type], buffer.getLong(), getUuid(buffer), getUuid(buffer),
+                buffer.getInt(), buffer.getLong());
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid == null ? 0 : uuid.getMostSignificantBits());
+        buffer.putLong(uuid == null ? 0 : uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        long most = buffer.getLong();
+        long least = buffer.getLong();
+        return most == 0 && least == 0 ? null : new UUID(most, least);
+    }
+}
@@ -0,0 +1,33 @@
+package ma.enset.inventoryservice.reservation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "inventory.reservations")
+@Getter
+@Setter
+public class ReservationProperties {
+    private boolean enabled = true;
+    private Duration defaultTtl = Duration.ofMinutes(5);
+    private Duration maxTtl = Duration.ofMinutes(30);
+    /**
+     * Append-only log of holds, confirmations and stock adjustments, replayed on restart.
+     */
+    private String logPath = "data/reservations.log";
+    /**
+     * Force the log to disk before a reservation, confirmation or adjustment is acknowledged.
+     */
+    private boolean fsync = true;
+    /**
+     * Delay between two batched writes of confirmed stock changes to the product table.
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+    /**
+     * The log is rewritten with only the live holds once it grows past this size.
+     */
+    private DataSize compactAfter = DataSize.ofMegabytes(16);
+}
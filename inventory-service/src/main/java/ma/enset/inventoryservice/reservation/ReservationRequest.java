@@ -0,0 +1,11 @@
+package ma.enset.inventoryservice.reservation;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param ttl how long the stock is held unless confirmed or released, {@code inventory.reservations.default-ttl}
+ *            when absent and capped at {@code inventory.reservations.max-ttl}
+ */
+public record ReservationRequest(List<ReservationLine> lines, Duration ttl) {
+}
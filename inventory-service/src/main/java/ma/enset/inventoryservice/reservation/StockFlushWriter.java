@@ -0,0 +1,75 @@
+package ma.enset.inventoryservice.reservation;
+
+import ma.enset.commons.events.EntityChangePublisher;
+import ma.enset.inventoryservice.entities.Product;
+import ma.enset.inventoryservice.entities.ReservationCheckpoint;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import ma.enset.inventoryservice.repositories.ReservationCheckpointRepository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Database side of the reservation engine: initial stock, and batched writes of stock changes together
+ * with the log sequence they cover.
+ * <p>
+ * Reads run in read-write transactions of their own so that they are served by the primary, even when the
+ * engine is first asked about a product from a read-only transaction: the ledger must start from the stock
+ * the batches were written to, not from a replica that may not have received the last one.
+ */
+public class StockFlushWriter {
+    private final ProductRepository productRepository;
+    private final ReservationCheckpointRepository checkpointRepository;
+    private final EntityChangePublisher entityChangePublisher;
+    /**
+     * Checkpoint row of this instance's reservation log.
+     */
+    private final String checkpointId;
+
+    public StockFlushWriter(ProductRepository productRepository,
+                            ReservationCheckpointRepository checkpointRepository,
+                            EntityChangePublisher entityChangePublisher,
+                            String checkpointId) {
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.entityChangePublisher = entityChangePublisher;
+        this.checkpointId = checkpointId;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Map<UUID, Integer> loadQuantities() {
+        return productRepository.findAll().stream()
+                .collect(Collectors.toMap(Product::getId, Product::getQuantity));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public OptionalInt loadQuantity(UUID productId) {
+        return productRepository.findById(productId)
+                .map(product -> OptionalInt.of(product.getQuantity()))
+                .orElse(OptionalInt.empty());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long checkpoint() {
+        return checkpointRepository.findById(checkpointId)
+                .map(ReservationCheckpoint::getLastSequence)
+                .orElse(0L);
+    }
+
+    /**
+     * Adds each delta to its product's quantity in place and records {@code sequence} as written, in one
+     * transaction. The relative updates bypass the entity listener, so a change event is published for every
+     * product written, relayed once the transaction has committed.
+     */
+    @Transactional
+    public void apply(Map<UUID, Integer> deltas, long sequence) {
+        deltas.forEach(productRepository::addQuantity);
+        checkpointRepository.save(new ReservationCheckpoint(checkpointId, sequence));
+        productRepository.findAllById(deltas.keySet())
+                .forEach(product -> entityChangePublisher.saved("Product", product.getId(), product));
+    }
+}
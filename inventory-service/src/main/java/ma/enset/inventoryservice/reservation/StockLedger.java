@@ -0,0 +1,145 @@
+package ma.enset.inventoryservice.reservation;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Available and held stock of every product packed into one {@code long} per product (available in the
+ * high half, held in the low half), so that a reservation moves stock between the two with a single CAS.
+ * Slots live in fixed-size chunks that are never moved or resized, and are never freed.
+ */
+public class StockLedger {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 12;
+
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private int nextSlot;
+
+    /**
+     * @return the slot of the product, or -1 when it is not tracked
+     */
+    public int slot(UUID productId) {
+        Integer slot = slots.get(productId);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Starts tracking a product with the given available stock; a product already tracked keeps its counters.
+     */
+    public synchronized int register(UUID productId, int available) {
+        Integer existing = slots.get(productId);
+        if (existing != null) {
+            return existing;
+        }
+        int slot = nextSlot;
+        int chunk = slot >>> CHUNK_BITS;
+        if (chunk >= MAX_CHUNKS) {
+            throw new IllegalStateException("Stock ledger is full");
+        }
+        if (chunks.get(chunk) == null) {
+            chunks.set(chunk, new AtomicLongArray(CHUNK_SIZE));
+        }
+        chunks.get(chunk).set(slot & (CHUNK_SIZE - 1), pack(Math.max(available, 0), 0));
+        nextSlot++;
+        slots.put(productId, slot);
+        return slot;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Moves {@code quantity} from available to held, unless less than {@code quantity} is available.
+     */
+    public boolean hold(int slot, int quantity) {
+        AtomicLongArray chunk = chunk(slot);
+        int index = slot & (CHUNK_SIZE - 1);
+        while (true) {
+            long current = chunk.get(index);
+            int available = available(current);
+            if (available < quantity) {
+                return false;
+            }
+            if (chunk.compareAndSet(index, current, pack(available - quantity, held(current) + quantity))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves {@code quantity} from held back to available.
+     */
+    public void release(int slot, int quantity) {
+        update(slot, quantity, -quantity);
+    }
+
+    /**
+     * Removes {@code quantity} from held: the stock has left the warehouse.
+     */
+    public void commit(int slot, int quantity) {
+        update(slot, 0, -quantity);
+    }
+
+    /**
+     * Adds {@code delta} to available, unless that would make it negative.
+     */
+    public boolean adjust(int slot, int delta) {
+        AtomicLongArray chunk = chunk(slot);
+        int index = slot & (CHUNK_SIZE - 1);
+        while (true) {
+            long current = chunk.get(index);
+            long available = (long) available(current) + delta;
+            if (available < 0 || available > Integer.MAX_VALUE) {
+                return false;
+            }
+            if (chunk.compareAndSet(index, current, pack((int) available, held(current)))) {
+                return true;
+            }
+        }
+    }
+
+    public int available(int slot) {
+        return available(chunk(slot).get(slot & (CHUNK_SIZE - 1)));
+    }
+
+    public int held(int slot) {
+        return held(chunk(slot).get(slot & (CHUNK_SIZE - 1)));
+    }
+
+    private void update(int slot, int availableDelta, int heldDelta) {
+        AtomicLongArray chunk = chunk(slot);
+        int index = slot & (CHUNK_SIZE - 1);
+        while (true) {
+            long current = chunk.get(index);
+            int held = held(current) + heldDelta;
+            if (held < 0) {
+                throw new IllegalStateException("More stock released than held in slot " + slot);
+            }
+            if (chunk.compareAndSet(index, current, pack(available(current) + availableDelta, held))) {
+                return;
+            }
+        }
+    }
+
+    private AtomicLongArray chunk(int slot) {
+        return chunks.get(slot >>> CHUNK_BITS);
+    }
+
+    private static long pack(int available, int held) {
+        return ((long) available << 32) | (held & 0xFFFFFFFFL);
+    }
+
+    private static int available(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int held(long packed) {
+        return (int) packed;
+    }
+}
@@ -0,0 +1,10 @@
+package ma.enset.inventoryservice.reservation;
+
+import java.util.UUID;
+
+public record StockLevel(UUID productId, int available, int held) {
+
+    public int onHand() {
+        return available + held;
+    }
+}
@@ -0,0 +1,113 @@
+package ma.enset.inventoryservice.service;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.commons.events.EntityChangePublisher;
+import ma.enset.inventoryservice.entities.Product;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import ma.enset.inventoryservice.reservation.ReservationEngine;
+import ma.enset.inventoryservice.reservation.ReservationException;
+import ma.enset.inventoryservice.reservation.StockLevel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ProductStockService {
+
+    private final ProductRepository productRepository;
+    private final ObjectProvider<ReservationEngine> reservationEngine;
+    private final EntityChangePublisher entityChangePublisher;
+
+    /**
+     * With the reservation engine, the change is applied to the in-memory stock and written to the product
+     * table with the next batch, which publishes the product's change event. Without it, the quantity is
+     * updated in place and the change event is published once the transaction has committed.
+     *
+     * @return the product with its new quantity, empty when the product is unknown
+     * @throws ReservationException when the quantity would become negative
+     */
+    @Transactional
+    public Optional<Product> updateQuantity(UUID id, int delta) {
+        ReservationEngine engine = reservationEngine.getIfAvailable();
+        if (engine != null) {
+            return engine.adjust(id, delta).flatMap(level -> productRepository.findById(id)
+                    .map(product -> Product.builder()
+                            .id(id)
+                            .name(product.getName())
+                            .price(product.getPrice())
+                            .quantity(level.onHand())
+                            .build()));
+        }
+        if (productRepository.addQuantityIfAvailable(id, delta) == 0) {
+            if (productRepository.existsById(id)) {
+                throw new ReservationException(ReservationException.Reason.INSUFFICIENT_STOCK, id);
+            }
+            return Optional.empty();
+        }
+        Optional<Product> product = productRepository.findById(id);
+        product.ifPresent(this::publishSaved);
+        return product;
+    }
+
+    /**
+     * Product edit while the reservation engine owns the stock. Name and price are saved with the product; a new
+     * quantity is checked against the held stock and applied to the engine as an adjustment of the difference
+     * once the edit has committed, so that an edit that rolls back leaves the stock alone.
+     *
+     * @return the product with its new quantity, empty when the product is unknown
+     * @throws ReservationException when the quantity is below the held stock
+     */
+    @Transactional
+    public Optional<Product> edit(UUID id, String name, Double price, Integer quantity) {
+        ReservationEngine engine = reservationEngine.getObject();
+        return productRepository.findById(id).map(product -> {
+            if (name != null) {
+                product.setName(name);
+            }
+            if (price != null) {
+                product.setPrice(price);
+            }
+            StockLevel level = engine.stock(id).orElseThrow();
+            if (quantity != null && quantity != level.onHand()) {
+                if (quantity < level.held()) {
+                    throw new ReservationException(ReservationException.Reason.INSUFFICIENT_STOCK, id);
+                }
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        engine.stock(id).ifPresent(current -> engine.adjust(id, quantity - current.onHand()));
+                    }
+                });
+            }
+            return Product.builder()
+                    .id(id)
+                    .name(product.getName())
+                    .price(product.getPrice())
+                    .quantity(quantity != null ? quantity : level.onHand())
+                    .build();
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Boolean> isAvailable(UUID id, int quantity) {
+        ReservationEngine engine = reservationEngine.getIfAvailable();
+        if (engine != null) {
+            return engine.stock(id).map(level -> level.available() >= quantity);
+        }
+        return productRepository.findQuantityById(id).map(stored -> stored >= quantity);
+    }
+
+    /**
+     * The relative update bypasses the entity listener; the event is relayed to the change feed once the
+     * surrounding transaction has committed.
+     */
+    private void publishSaved(Product product) {
+        entityChangePublisher.saved("Product", product.getId(), product);
+    }
+}
@@ -0,0 +1,8 @@
+package ma.enset.inventoryservice.web;
+
+/**
+ * Body of {@code PUT} and {@code PATCH /products/{id}} while the reservation engine is on; fields left out keep
+ * their value.
+ */
+public record ProductEdit(String name, Double price, Integer quantity) {
+}
@@ -0,0 +1,37 @@
+package ma.enset.inventoryservice.web;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.inventoryservice.entities.Product;
+import ma.enset.inventoryservice.reservation.ReservationException;
+import ma.enset.inventoryservice.service.ProductStockService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.UUID;
+
+/**
+ * With the reservation engine on, the engine owns the stock, so product edits are served here instead of by
+ * Spring Data REST, which would write the quantity column: a new quantity becomes a stock adjustment, and an
+ * edit below the held stock is rejected with 409.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "inventory.reservations", name = "enabled", havingValue = "true")
+public class ProductEditController {
+    private final ProductStockService productStockService;
+
+    @RequestMapping(path = "/products/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    public ResponseEntity<Product> edit(@PathVariable UUID id, @RequestBody ProductEdit edit) {
+        try {
+            return ResponseEntity.of(productStockService.edit(id, edit.name(), edit.price(), edit.quantity()));
+        } catch (ReservationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ma.enset.inventoryservice.web;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.inventoryservice.config.RestRepositoryConfig;
+import ma.enset.inventoryservice.entities.ProductProjection;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.List;
+
+/**
+ * Lean variant of {@code GET /api/products}: requested with {@code Accept: application/vnd.enset.lean+json}, it
+ * returns one page as a plain array of {@link ProductProjection} with the total in {@code X-Total-Count}; any
+ * other {@code Accept} keeps the HAL collection.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class ProductLeanController {
+    private final ProductRepository productRepository;
+
+    @GetMapping(path = "/products", produces = RestRepositoryConfig.LEAN_JSON_VALUE)
+    public ResponseEntity<List<ProductProjection>> products(Pageable pageable) {
+        Page<ProductProjection> page = productRepository.findAllBy(pageable, ProductProjection.class);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.getTotalElements()))
+                .body(page.getContent());
+    }
+}
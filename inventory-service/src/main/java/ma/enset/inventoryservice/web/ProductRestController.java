@@ -3,9 +3,13 @@ package ma.enset.inventoryservice.web;
 import lombok.RequiredArgsConstructor;
 import ma.enset.inventoryservice.entities.Product;
 import ma.enset.inventoryservice.repositories.ProductRepository;
+import ma.enset.inventoryservice.reservation.ReservationException;
+import ma.enset.inventoryservice.service.ProductStockService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -14,22 +18,28 @@ import java.util.UUID;
 public class ProductRestController {
 
     private final ProductRepository productRepository;
+    private final ProductStockService productStockService;
+
+    @GetMapping("/products/snapshot")
+    public List<Product> snapshot() {
+        return productRepository.findAll();
+    }
+
+    @PostMapping("/products/batch")
+    public List<Product> batch(@RequestBody Set<UUID> ids) {
+        return productRepository.findAllById(ids);
+    }
 
     @PostMapping("/products/{id}/update-quantity")
     public ResponseEntity<Product> updateQuantity(
             @PathVariable UUID id,
             @RequestParam int delta
     ) {
-        return productRepository.findById(id)
-                .map(product -> {
-                    int newQuantity = product.getQuantity() + delta;
-                    if (newQuantity < 0) {
-                        return ResponseEntity.badRequest().<Product>build();
-                    }
-                    product.setQuantity(newQuantity);
-                    return ResponseEntity.ok(productRepository.save(product));
-                })
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return ResponseEntity.of(productStockService.updateQuantity(id, delta));
+        } catch (ReservationException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/products/{id}/check-availability")
@@ -37,8 +47,6 @@ public class ProductRestController {
             @PathVariable UUID id,
             @RequestParam int quantity
     ) {
-        return productRepository.findById(id)
-                .map(product -> ResponseEntity.ok(product.getQuantity() >= quantity))
-                .orElse(ResponseEntity.notFound().build());
+        return ResponseEntity.of(productStockService.isAvailable(id, quantity));
     }
 }
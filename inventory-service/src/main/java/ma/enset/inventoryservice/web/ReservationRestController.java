@@ -0,0 +1,63 @@
+package ma.enset.inventoryservice.web;
+
+import lombok.RequiredArgsConstructor;
+import ma.enset.inventoryservice.reservation.Reservation;
+import ma.enset.inventoryservice.reservation.ReservationEngine;
+import ma.enset.inventoryservice.reservation.ReservationException;
+import ma.enset.inventoryservice.reservation.ReservationRequest;
+import ma.enset.inventoryservice.reservation.StockLevel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/inventory")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "inventory.reservations", name = "enabled", havingValue = "true")
+public class ReservationRestController {
+
+    private final ReservationEngine reservationEngine;
+
+    @PostMapping("/reservations")
+    public ResponseEntity<Reservation> reserve(@RequestBody ReservationRequest request) {
+        if (request.lines() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(reservationEngine.reserve(request.lines(), request.ttl()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ReservationException e) {
+            return ResponseEntity.status(e.getReason() == ReservationException.Reason.UNKNOWN_PRODUCT
+                    ? HttpStatus.NOT_FOUND : HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/reservations/{id}")
+    public ResponseEntity<Reservation> reservation(@PathVariable UUID id) {
+        return ResponseEntity.of(reservationEngine.reservation(id));
+    }
+
+    @PostMapping("/reservations/{id}/confirm")
+    public ResponseEntity<Void> confirm(@PathVariable UUID id) {
+        return reservationEngine.confirm(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<Void> release(@PathVariable UUID id) {
+        return reservationEngine.release(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/products/{id}/stock")
+    public ResponseEntity<StockLevel> stock(@PathVariable UUID id) {
+        return ResponseEntity.of(reservationEngine.stock(id));
+    }
+}
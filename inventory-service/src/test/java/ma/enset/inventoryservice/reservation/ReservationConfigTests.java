@@ -0,0 +1,24 @@
+package ma.enset.inventoryservice.reservation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationConfigTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyReservationLogGetsAStableCheckpointOfItsOwn() throws IOException {
+        String first = ReservationConfig.checkpointId(dir.resolve("first/reservations.log"));
+        String second = ReservationConfig.checkpointId(dir.resolve("second/reservations.log"));
+
+        assertThat(first).startsWith("reservations-").isNotEqualTo(second);
+        assertThat(ReservationConfig.checkpointId(dir.resolve("first/reservations.log"))).isEqualTo(first);
+    }
+}
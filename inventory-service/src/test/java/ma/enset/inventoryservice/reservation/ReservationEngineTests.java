@@ -0,0 +1,280 @@
+package ma.enset.inventoryservice.reservation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationEngineTests {
+    private static final UUID DESK = UUID.randomUUID();
+    private static final UUID PRINTER = UUID.randomUUID();
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Product table kept in memory.
+     */
+    static class InMemoryWriter extends StockFlushWriter {
+        final Map<UUID, Integer> quantities;
+        long checkpoint;
+        int batches;
+
+        InMemoryWriter() {
+            this(new HashMap<>());
+        }
+
+        /**
+         * Shares the product table of another writer, with a checkpoint of its own.
+         */
+        InMemoryWriter(Map<UUID, Integer> quantities) {
+            super(null, null, null, null);
+            this.quantities = quantities;
+        }
+
+        @Override
+        public synchronized Map<UUID, Integer> loadQuantities() {
+            return new HashMap<>(quantities);
+        }
+
+        @Override
+        public synchronized OptionalInt loadQuantity(UUID productId) {
+            Integer quantity = quantities.get(productId);
+            return quantity == null ? OptionalInt.empty() : OptionalInt.of(quantity);
+        }
+
+        @Override
+        public synchronized long checkpoint() {
+            return checkpoint;
+        }
+
+        @Override
+        public synchronized void apply(Map<UUID, Integer> deltas, long sequence) {
+            deltas.forEach((productId, delta) -> quantities.merge(productId, delta, Integer::sum));
+            checkpoint = sequence;
+            batches++;
+        }
+    }
+
+    private InMemoryWriter writer() {
+        InMemoryWriter writer = new InMemoryWriter();
+        writer.quantities.put(DESK, 10);
+        writer.quantities.put(PRINTER, 3);
+        return writer;
+    }
+
+    private ReservationEngine start(InMemoryWriter writer) throws IOException {
+        ReservationEngine engine = new ReservationEngine(
+                new ReservationLog(dir.resolve("reservations.log"), true), writer, new ReservationProperties());
+        engine.recover();
+        return engine;
+    }
+
+    @Test
+    void holdsStockUntilConfirmedThenWritesItBehindInOneBatch() throws IOException {
+        InMemoryWriter writer = writer();
+        ReservationEngine engine = start(writer);
+
+        Reservation first = engine.reserve(List.of(new ReservationLine(DESK, 4), new ReservationLine(PRINTER, 1)), null);
+        Reservation second = engine.reserve(List.of(new ReservationLine(DESK, 2)), null);
+        assertThat(engine.stock(DESK)).hasValue(new StockLevel(DESK, 4, 6));
+        assertThatThrownBy(() -> engine.reserve(List.of(new ReservationLine(DESK, 5)), null))
+                .isInstanceOf(ReservationException.class);
+        assertThat(engine.stock(PRINTER)).hasValue(new StockLevel(PRINTER, 2, 1));
+
+        assertThat(engine.confirm(first.id())).isTrue();
+        assertThat(engine.confirm(second.id())).isTrue();
+        assertThat(engine.confirm(second.id())).isFalse();
+        assertThat(writer.quantities).containsEntry(DESK, 10);
+
+        engine.flush();
+        assertThat(writer.batches).isEqualTo(1);
+        assertThat(writer.quantities).containsEntry(DESK, 4).containsEntry(PRINTER, 2);
+        assertThat(engine.stock(DESK)).hasValue(new StockLevel(DESK, 4, 0));
+        engine.close();
+    }
+
+    @Test
+    void expiredHoldsReturnTheirStock() throws Exception {
+        ReservationEngine engine = start(writer());
+
+        Reservation reservation = engine.reserve(List.of(new ReservationLine(PRINTER, 3)), Duration.ofMillis(50));
+        assertThat(engine.stock(PRINTER).orElseThrow().available()).isZero();
+
+        // the reservation is dropped before its stock is released, so wait for the stock
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (engine.stock(PRINTER).orElseThrow().held() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(engine.stock(PRINTER)).hasValue(new StockLevel(PRINTER, 3, 0));
+        assertThat(engine.reservation(reservation.id())).isEmpty();
+        assertThat(engine.confirm(reservation.id())).isFalse();
+        engine.close();
+    }
+
+    @Test
+    void restartReplaysLiveHoldsAndUnwrittenStockChanges() throws IOException {
+        InMemoryWriter writer = writer();
+        ReservationEngine engine = start(writer);
+        Reservation live = engine.reserve(List.of(new ReservationLine(DESK, 3)), Duration.ofMinutes(5));
+        Reservation confirmed = engine.reserve(List.of(new ReservationLine(PRINTER, 2)), Duration.ofMinutes(5));
+        engine.confirm(confirmed.id());
+        engine.adjust(DESK, 5);
+        // crash: nothing written behind, log left as is
+
+        InMemoryWriter restarted = new InMemoryWriter();
+        restarted.quantities.putAll(writer.quantities);
+        ReservationEngine recovered = start(restarted);
+
+        assertThat(restarted.quantities).containsEntry(DESK, 15).containsEntry(PRINTER, 1);
+        assertThat(recovered.stock(DESK)).hasValue(new StockLevel(DESK, 12, 3));
+        assertThat(recovered.stock(PRINTER)).hasValue(new StockLevel(PRINTER, 1, 0));
+        assertThat(recovered.confirm(live.id())).isTrue();
+        recovered.close();
+
+        InMemoryWriter again = new InMemoryWriter();
+        again.quantities.putAll(restarted.quantities);
+        again.checkpoint = restarted.checkpoint;
+        start(again).close();
+        assertThat(again.quantities).containsEntry(DESK, 12).containsEntry(PRINTER, 1);
+    }
+
+    @Test
+    void instancesSharingTheProductTableRecoverFromTheirOwnCheckpoint() throws IOException {
+        InMemoryWriter first = writer();
+        InMemoryWriter second = new InMemoryWriter(first.quantities);
+        ReservationEngine firstEngine = new ReservationEngine(
+                new ReservationLog(dir.resolve("first.log"), false), first, new ReservationProperties());
+        firstEngine.recover();
+        ReservationEngine secondEngine = new ReservationEngine(
+                new ReservationLog(dir.resolve("second.log"), false), second, new ReservationProperties());
+        secondEngine.recover();
+
+        for (int i = 0; i < 3; i++) {
+            firstEngine.adjust(DESK, 1);
+        }
+        firstEngine.flush();
+        secondEngine.adjust(DESK, -2);
+        // second instance crashes before its batch is written
+
+        InMemoryWriter restarted = new InMemoryWriter(first.quantities);
+        restarted.checkpoint = second.checkpoint;
+        ReservationEngine recovered = new ReservationEngine(
+                new ReservationLog(dir.resolve("second.log"), false), restarted, new ReservationProperties());
+        recovered.recover();
+
+        assertThat(first.checkpoint).isEqualTo(3);
+        assertThat(first.quantities).containsEntry(DESK, 11);
+        assertThat(recovered.stock(DESK)).hasValue(new StockLevel(DESK, 11, 0));
+        recovered.close();
+        firstEngine.close();
+    }
+
+    @Test
+    void concurrentReservationsAdjustmentsAndFlushesConserveStock() throws Exception {
+        InMemoryWriter writer = new InMemoryWriter();
+        writer.quantities.put(DESK, 200);
+        writer.quantities.put(PRINTER, 50);
+        Map<UUID, Integer> initial = Map.copyOf(writer.quantities);
+        ReservationEngine engine = new ReservationEngine(
+                new ReservationLog(dir.resolve("reservations.log"), false), writer, new ReservationProperties());
+        engine.recover();
+
+        Map<UUID, AtomicInteger> changed = Map.of(DESK, new AtomicInteger(), PRINTER, new AtomicInteger());
+        Map<UUID, AtomicInteger> stillHeld = Map.of(DESK, new AtomicInteger(), PRINTER, new AtomicInteger());
+        List<UUID> products = List.of(DESK, PRINTER);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                engine.flush();
+            }
+        });
+        try (ExecutorService workers = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int w = 0; w < 8; w++) {
+                results.add(workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 2_000; i++) {
+                        UUID productId = products.get(random.nextInt(products.size()));
+                        int quantity = random.nextInt(1, 4);
+                        try {
+                            if (random.nextInt(4) == 0) {
+                                int delta = random.nextBoolean() ? quantity : -quantity;
+                                engine.adjust(productId, delta);
+                                changed.get(productId).addAndGet(delta);
+                                continue;
+                            }
+                            Reservation reservation = engine.reserve(
+                                    List.of(new ReservationLine(productId, quantity)), Duration.ofMinutes(5));
+                            switch (random.nextInt(10)) {
+                                case 0 -> stillHeld.get(productId).addAndGet(quantity);
+                                case 1, 2, 3, 4 -> assertThat(engine.release(reservation.id())).isTrue();
+                                default -> {
+                                    assertThat(engine.confirm(reservation.id())).isTrue();
+                                    changed.get(productId).addAndGet(-quantity);
+                                }
+                            }
+                        } catch (ReservationException e) {
+                            // out of stock, nothing changed
+                        }
+                        StockLevel level = engine.stock(productId).orElseThrow();
+                        assertThat(level.available()).isNotNegative();
+                        assertThat(level.held()).isNotNegative();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            running.set(false);
+            flusher.join();
+        }
+        engine.flush();
+
+        for (UUID productId : products) {
+            int onHand = initial.get(productId) + changed.get(productId).get();
+            assertThat(engine.stock(productId))
+                    .hasValue(new StockLevel(productId, onHand - stillHeld.get(productId).get(), stillHeld.get(productId).get()));
+            assertThat(writer.quantities).containsEntry(productId, onHand);
+        }
+        engine.close();
+    }
+
+    @Test
+    void tornRecordAtTheEndOfTheLogIsDropped() throws IOException {
+        Path path = dir.resolve("reservations.log");
+        try (ReservationLog log = new ReservationLog(path, false)) {
+            log.append(ReservationLog.Entry.adjust(DESK, 1));
+            log.append(ReservationLog.Entry.adjust(DESK, 2));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(ReservationLog.RECORD_SIZE * 2L - 7);
+        }
+        try (ReservationLog log = new ReservationLog(path, false)) {
+            assertThat(log.replay()).extracting(ReservationLog.Entry::quantity).containsExactly(1);
+            assertThat(log.size()).isEqualTo(ReservationLog.RECORD_SIZE);
+            assertThat(log.append(ReservationLog.Entry.adjust(DESK, 3))).isEqualTo(2);
+        }
+    }
+}
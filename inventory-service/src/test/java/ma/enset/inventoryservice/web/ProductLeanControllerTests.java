@@ -0,0 +1,73 @@
+package ma.enset.inventoryservice.web;
+
+import ma.enset.inventoryservice.config.RestRepositoryConfig;
+import ma.enset.inventoryservice.entities.Product;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.seed.enabled=false",
+        "inventory.reservations.enabled=false"
+})
+@AutoConfigureMockMvc
+class ProductLeanControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ProductRepository productRepository;
+
+    @BeforeEach
+    void saveProducts() {
+        productRepository.save(Product.builder().name("Computer").price(3200).quantity(11).build());
+        productRepository.save(Product.builder().name("Printer").price(1299).quantity(10).build());
+        productRepository.save(Product.builder().name("Smartphone").price(5400).quantity(8).build());
+    }
+
+    @AfterEach
+    void deleteProducts() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void leanAcceptReturnsAPlainPageWithTheTotalInAHeader() throws Exception {
+        mockMvc.perform(get("/products").param("size", "2").param("sort", "name")
+                        .accept(RestRepositoryConfig.LEAN_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(RestRepositoryConfig.LEAN_JSON_VALUE))
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].name").value(contains("Computer", "Printer")))
+                .andExpect(jsonPath("$[1].quantity").value(10))
+                .andExpect(jsonPath("$[0]._links").doesNotExist());
+    }
+
+    @Test
+    void halStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/products").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$._embedded.products", hasSize(2)))
+                .andExpect(jsonPath("$._links.self").exists())
+                .andExpect(jsonPath("$.page.totalElements").value(3));
+        mockMvc.perform(get("/products").accept(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$._embedded.products", hasSize(3)));
+    }
+}
@@ -0,0 +1,178 @@
+package ma.enset.inventoryservice.web;
+
+import ma.enset.inventoryservice.entities.Product;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import ma.enset.inventoryservice.reservation.ReservationEngine;
+import ma.enset.inventoryservice.reservation.ReservationLine;
+import ma.enset.inventoryservice.reservation.StockLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.seed.enabled=false",
+        "inventory.reservations.enabled=true",
+        "inventory.reservations.log-path=target/product-rest-controller-tests.log",
+        "inventory.reservations.fsync=false",
+        "inventory.reservations.flush-interval=1h"
+})
+@AutoConfigureMockMvc
+class ProductRestControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoSpyBean
+    ProductRepository productRepository;
+    @Autowired
+    ReservationEngine reservationEngine;
+
+    private UUID desk;
+
+    @BeforeEach
+    void saveProduct() {
+        desk = productRepository.save(Product.builder().name("Desk").price(300).quantity(10).build()).getId();
+    }
+
+    @AfterEach
+    void deleteProducts() {
+        reservationEngine.flush();
+        productRepository.deleteAllInBatch();
+    }
+
+    private int storedQuantity() {
+        return productRepository.findQuantityById(desk).orElseThrow();
+    }
+
+    static boolean hasChange(MvcResult feed, UUID productId, int quantity) throws Exception {
+        return feed.getResponse().getContentAsString().lines().anyMatch(line -> line.startsWith("data:")
+                && line.contains("\"entityId\":\"" + productId + "\"")
+                && line.contains("\"quantity\":" + quantity));
+    }
+
+    static void awaitChange(MvcResult feed, UUID productId, int quantity) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!hasChange(feed, productId, quantity)) {
+            assertThat(System.currentTimeMillis()).as("change event of %s", productId).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void updateQuantityAnswersFromTheEngineAndIsWrittenBehind() throws Exception {
+        mockMvc.perform(post("/inventory/products/{id}/update-quantity", desk).param("delta", "-4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(desk.toString()))
+                .andExpect(jsonPath("$.name").value("Desk"))
+                .andExpect(jsonPath("$.quantity").value(6));
+        mockMvc.perform(post("/inventory/products/{id}/update-quantity", desk).param("delta", "-7"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/inventory/products/{id}/update-quantity", UUID.randomUUID()).param("delta", "1"))
+                .andExpect(status().isNotFound());
+        assertThat(storedQuantity()).isEqualTo(10);
+
+        reservationEngine.flush();
+        assertThat(storedQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    void updateQuantityIsPublishedOnTheChangeFeedOnceWritten() throws Exception {
+        MvcResult feed = mockMvc.perform(get("/events/changes")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(post("/inventory/products/{id}/update-quantity", desk).param("delta", "-4"))
+                .andExpect(status().isOk());
+        Thread.sleep(100);
+        assertThat(hasChange(feed, desk, 6)).isFalse();
+
+        reservationEngine.flush();
+        awaitChange(feed, desk, 6);
+    }
+
+    @Test
+    void productEditsAdjustTheEngineStockByTheQuantityDifference() throws Exception {
+        reservationEngine.adjust(desk, -3);
+
+        mockMvc.perform(put("/products/{id}", desk)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"Standing desk","price":450,"quantity":12}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Standing desk"))
+                .andExpect(jsonPath("$.quantity").value(12));
+        assertThat(reservationEngine.stock(desk)).hasValue(new StockLevel(desk, 12, 0));
+        assertThat(storedQuantity()).isEqualTo(10);
+
+        reservationEngine.flush();
+        assertThat(storedQuantity()).isEqualTo(12);
+        assertThat(productRepository.findById(desk).orElseThrow().getName()).isEqualTo("Standing desk");
+    }
+
+    @Test
+    void productEditsBelowTheHeldStockAreRejected() throws Exception {
+        reservationEngine.reserve(List.of(new ReservationLine(desk, 5)), null);
+
+        mockMvc.perform(put("/products/{id}", desk)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"Desk","price":300,"quantity":2}"""))
+                .andExpect(status().isConflict());
+        assertThat(reservationEngine.stock(desk)).hasValue(new StockLevel(desk, 5, 5));
+        assertThat(storedQuantity()).isEqualTo(10);
+        assertThat(productRepository.findById(desk).orElseThrow().getPrice()).isEqualTo(300);
+    }
+
+    @Test
+    void productPatchesWithoutAQuantityLeaveTheEngineStockAlone() throws Exception {
+        reservationEngine.adjust(desk, -3);
+
+        mockMvc.perform(patch("/products/{id}", desk)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"price":350}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Desk"))
+                .andExpect(jsonPath("$.quantity").value(7));
+        assertThat(reservationEngine.stock(desk)).hasValue(new StockLevel(desk, 7, 0));
+        assertThat(productRepository.findById(desk).orElseThrow().getPrice()).isEqualTo(350);
+    }
+
+    @Test
+    void stockOfAProductNewToTheEngineIsLoadedInAReadWriteTransaction() throws Exception {
+        List<Boolean> readOnly = new ArrayList<>();
+        doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            // the spied repository is a proxy, whose default answer delegates to it
+            return mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        }).when(productRepository).findById(desk);
+
+        mockMvc.perform(get("/inventory/products/{id}/check-availability", desk).param("quantity", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(true));
+        assertThat(readOnly).containsExactly(false);
+    }
+}
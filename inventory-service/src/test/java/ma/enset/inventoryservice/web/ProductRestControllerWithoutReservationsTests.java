@@ -0,0 +1,74 @@
+package ma.enset.inventoryservice.web;
+
+import ma.enset.inventoryservice.entities.Product;
+import ma.enset.inventoryservice.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.seed.enabled=false",
+        "inventory.reservations.enabled=false"
+})
+@AutoConfigureMockMvc
+class ProductRestControllerWithoutReservationsTests {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ProductRepository productRepository;
+
+    @AfterEach
+    void deleteProducts() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void updateQuantityWritesInPlaceAndIsPublishedOnTheChangeFeed() throws Exception {
+        UUID desk = productRepository.save(Product.builder().name("Desk").price(300).quantity(10).build()).getId();
+        MvcResult feed = mockMvc.perform(get("/events/changes")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(post("/inventory/products/{id}/update-quantity", desk).param("delta", "-4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(6));
+        mockMvc.perform(post("/inventory/products/{id}/update-quantity", desk).param("delta", "-7"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/inventory/products/{id}/update-quantity", UUID.randomUUID()).param("delta", "1"))
+                .andExpect(status().isNotFound());
+
+        assertThat(productRepository.findQuantityById(desk)).hasValue(6);
+        ProductRestControllerTests.awaitChange(feed, desk, 6);
+    }
+
+    @Test
+    void productEditsWriteTheQuantity() throws Exception {
+        UUID desk = productRepository.save(Product.builder().name("Desk").price(300).quantity(10).build()).getId();
+
+        mockMvc.perform(put("/products/{id}", desk)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"Standing desk","price":450,"quantity":12}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Standing desk"))
+                .andExpect(jsonPath("$.quantity").value(12));
+
+        assertThat(productRepository.findQuantityById(desk)).hasValue(12);
+    }
+}
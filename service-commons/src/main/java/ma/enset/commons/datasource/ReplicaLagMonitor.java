@@ -0,0 +1,64 @@
+package ma.enset.commons.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically probes every replica and takes it out of rotation when it lags behind the primary
+ * by more than {@code datasource.routing.max-lag}, or when it cannot be reached at all.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final RoutingDataSourceProperties properties;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                             RoutingDataSourceProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+        routingDataSource.getReplicaNames().forEach(name -> {
+            lagSeconds.put(name, 0d);
+            Gauge.builder("datasource.routing.replica.lag", lagSeconds, m -> m.get(name))
+                    .description("Last measured replica lag, -1 when the replica is unreachable")
+                    .baseUnit("seconds")
+                    .tag("target", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval:5s}")
+    public void checkReplicas() {
+        routingDataSource.getReplicaNames().forEach(this::checkReplica);
+    }
+
+    void checkReplica(String name) {
+        double lag;
+        try {
+            lag = probe(new JdbcTemplate(routingDataSource.getReplica(name)));
+        } catch (Exception e) {
+            log.error("Error probing replica {}: {}", name, e.getMessage());
+            lag = -1;
+        }
+        lagSeconds.put(name, lag);
+        boolean lagging = lag < 0 || lag > properties.getMaxLag().toMillis() / 1000d;
+        routingDataSource.markLagging(name, lagging);
+    }
+
+    private double probe(JdbcTemplate jdbcTemplate) {
+        if (!StringUtils.hasText(properties.getLagQuery())) {
+            jdbcTemplate.execute("SELECT 1");
+            return 0;
+        }
+        Number lag = jdbcTemplate.queryForObject(properties.getLagQuery(), Number.class);
+        return lag == null ? 0 : lag.doubleValue();
+    }
+}
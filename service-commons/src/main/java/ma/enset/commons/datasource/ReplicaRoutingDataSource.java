@@ -0,0 +1,88 @@
+package ma.enset.commons.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica (round-robin) and everything else to the primary.
+ * Lagging replicas are skipped; when none is usable, reads fall back to the primary.
+ * <p>
+ * The routing key is resolved when the physical connection is fetched, so this data source
+ * must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaNames;
+    private final Set<String> laggingReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> readCounters = new HashMap<>();
+    private final Counter writeCounter;
+    private final Counter fallbackCounter;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.replicaNames = List.copyOf(replicas.keySet());
+        replicaNames.forEach(name -> readCounters.put(name, routeCounter(meterRegistry, name, "read")));
+        this.writeCounter = routeCounter(meterRegistry, PRIMARY, "write");
+        this.fallbackCounter = routeCounter(meterRegistry, PRIMARY, "fallback");
+        afterPropertiesSet();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String route) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Physical connections handed out per routing decision")
+                .tag("target", target)
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeCounter.increment();
+            return PRIMARY;
+        }
+        int size = replicaNames.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (!laggingReplicas.contains(name)) {
+                readCounters.get(name).increment();
+                return name;
+            }
+        }
+        fallbackCounter.increment();
+        return PRIMARY;
+    }
+
+    public List<String> getReplicaNames() {
+        return replicaNames;
+    }
+
+    public void markLagging(String replica, boolean lagging) {
+        boolean changed = lagging ? laggingReplicas.add(replica) : laggingReplicas.remove(replica);
+        if (changed) {
+            log.warn("Replica {} {} rotation", replica, lagging ? "taken out of" : "returned to");
+        }
+    }
+
+    public DataSource getReplica(String replica) {
+        return getResolvedDataSources().get(replica);
+    }
+}
@@ -0,0 +1,63 @@
+package ma.enset.commons.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured data source with a primary/replica router when
+ * {@code datasource.routing.enabled=true}. Repository reads run in read-only transactions
+ * and therefore go to the replicas; writes and read-write service methods stay on the primary.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({DataSourceProperties.class, RoutingDataSourceProperties.class})
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties dataSourceProperties,
+            RoutingDataSourceProperties routingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        DataSource primary = dataSourceProperties.initializeDataSourceBuilder().build();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            RoutingDataSourceProperties.Replica replica = routingProperties.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + i;
+            replicas.put(name, DataSourceBuilder.create()
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build());
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            RoutingDataSourceProperties routingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, routingProperties, meterRegistry);
+    }
+}
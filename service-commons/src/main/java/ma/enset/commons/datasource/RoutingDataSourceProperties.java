@@ -0,0 +1,35 @@
+package ma.enset.commons.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "datasource.routing")
+@Getter
+@Setter
+public class RoutingDataSourceProperties {
+    private boolean enabled;
+    /**
+     * Replicas are taken out of rotation once their reported lag exceeds this value.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+    /**
+     * Query returning the replica lag in seconds. When empty, a replica is only checked for liveness.
+     */
+    private String lagQuery;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,32 @@
+package ma.enset.commons.discovery;
+
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.EurekaClientConfig;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.netflix.eureka.EurekaDiscoveryClient;
+
+import java.util.List;
+
+/**
+ * Eureka discovery client answering from the push-fed {@link RegistryCache} while it is live, and from
+ * Eureka's periodically fetched registry otherwise.
+ */
+public class PushEurekaDiscoveryClient extends EurekaDiscoveryClient {
+    private final RegistryCache registryCache;
+
+    public PushEurekaDiscoveryClient(EurekaClient eurekaClient, EurekaClientConfig clientConfig,
+                                     RegistryCache registryCache) {
+        super(eurekaClient, clientConfig);
+        this.registryCache = registryCache;
+    }
+
+    @Override
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return registryCache.isLive() ? registryCache.getInstances(serviceId) : super.getInstances(serviceId);
+    }
+
+    @Override
+    public List<String> getServices() {
+        return registryCache.isLive() ? registryCache.getServices() : super.getServices();
+    }
+}
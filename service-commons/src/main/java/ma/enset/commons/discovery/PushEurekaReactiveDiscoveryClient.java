@@ -0,0 +1,34 @@
+package ma.enset.commons.discovery;
+
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.EurekaClientConfig;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.netflix.eureka.reactive.EurekaReactiveDiscoveryClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterpart of {@link PushEurekaDiscoveryClient}.
+ */
+public class PushEurekaReactiveDiscoveryClient extends EurekaReactiveDiscoveryClient {
+    private final RegistryCache registryCache;
+
+    public PushEurekaReactiveDiscoveryClient(EurekaClient eurekaClient, EurekaClientConfig clientConfig,
+                                             RegistryCache registryCache) {
+        super(eurekaClient, clientConfig);
+        this.registryCache = registryCache;
+    }
+
+    @Override
+    public Flux<ServiceInstance> getInstances(String serviceId) {
+        return Flux.defer(() -> registryCache.isLive()
+                ? Flux.fromIterable(registryCache.getInstances(serviceId))
+                : super.getInstances(serviceId));
+    }
+
+    @Override
+    public Flux<String> getServices() {
+        return Flux.defer(() -> registryCache.isLive()
+                ? Flux.fromIterable(registryCache.getServices())
+                : super.getServices());
+    }
+}
@@ -0,0 +1,86 @@
+package ma.enset.commons.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Local copy of the registry, seeded by a snapshot and then updated one delta at a time from the
+ * discovery-service change stream. Only {@code UP} instances are kept. Writes come from the single
+ * stream thread; each service maps to an immutable list so reads never allocate or lock.
+ * <p>
+ * The cache is only authoritative while {@link #isLive()}: a snapshot was applied on the current
+ * connection and the stream was heard from within {@code staleAfter}.
+ */
+public class RegistryCache {
+    private final long staleAfterNanos;
+    private volatile Map<String, List<ServiceInstance>> services = new ConcurrentHashMap<>();
+    private volatile boolean synced;
+    private volatile long lastHeardAt;
+    private volatile long sequence;
+
+    public RegistryCache(Duration staleAfter) {
+        this.staleAfterNanos = staleAfter.toNanos();
+    }
+
+    public boolean isLive() {
+        return synced && System.nanoTime() - lastHeardAt < staleAfterNanos;
+    }
+
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return services.getOrDefault(serviceId.toLowerCase(), List.of());
+    }
+
+    public List<String> getServices() {
+        return new ArrayList<>(services.keySet());
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    void replace(long sequence, Collection<ServiceInstance> instances) {
+        Map<String, List<ServiceInstance>> replacement = new ConcurrentHashMap<>(instances.stream()
+                .collect(Collectors.groupingBy(ServiceInstance::getServiceId, Collectors.toUnmodifiableList())));
+        services = replacement;
+        this.sequence = sequence;
+        synced = true;
+        heard();
+    }
+
+    void register(long sequence, ServiceInstance instance, boolean up) {
+        services.compute(instance.getServiceId(), (serviceId, current) -> {
+            List<ServiceInstance> updated = new ArrayList<>(current == null ? List.of() : current);
+            updated.removeIf(existing -> existing.getInstanceId().equals(instance.getInstanceId()));
+            if (up) {
+                updated.add(instance);
+            }
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+        this.sequence = sequence;
+    }
+
+    void cancel(long sequence, String serviceId, String instanceId) {
+        services.computeIfPresent(serviceId, (id, current) -> {
+            List<ServiceInstance> updated = current.stream()
+                    .filter(existing -> !existing.getInstanceId().equals(instanceId))
+                    .toList();
+            return updated.isEmpty() ? null : updated;
+        });
+        this.sequence = sequence;
+    }
+
+    void heard() {
+        lastHeardAt = System.nanoTime();
+    }
+
+    void disconnected() {
+        synced = false;
+    }
+}
@@ -0,0 +1,51 @@
+package ma.enset.commons.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.EurekaClientConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.netflix.eureka.EurekaDiscoveryClient;
+import org.springframework.cloud.netflix.eureka.reactive.EurekaReactiveDiscoveryClient;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Low-latency discovery: the Eureka discovery clients are replaced by versions reading a registry cache
+ * fed by the discovery-service change stream, falling back to Eureka while the stream is down. Spring
+ * Cloud's Eureka clients back off when these beans exist, and the composite discovery clients, which
+ * stay primary, delegate to them.
+ */
+@Configuration
+@ConditionalOnProperty(name = {"registry.push.enabled", "eureka.client.enabled"}, havingValue = "true", matchIfMissing = true)
+public class RegistryPushConfig {
+
+    @Bean
+    RegistryCache registryCache(@Value("${registry.push.stale-after:15s}") Duration staleAfter) {
+        return new RegistryCache(staleAfter);
+    }
+
+    @Bean
+    RegistryStreamSubscriber registryStreamSubscriber(RegistryCache registryCache,
+                                                      ObjectMapper objectMapper,
+                                                      ApplicationEventPublisher applicationEventPublisher,
+                                                      @Value("${registry.push.uri:http://localhost:8761}") String discoveryUri) {
+        return new RegistryStreamSubscriber(registryCache, objectMapper, applicationEventPublisher, discoveryUri);
+    }
+
+    @Bean
+    EurekaDiscoveryClient pushEurekaDiscoveryClient(EurekaClient eurekaClient, EurekaClientConfig clientConfig,
+                                                    RegistryCache registryCache) {
+        return new PushEurekaDiscoveryClient(eurekaClient, clientConfig, registryCache);
+    }
+
+    @Bean
+    EurekaReactiveDiscoveryClient pushEurekaReactiveDiscoveryClient(EurekaClient eurekaClient,
+                                                                    EurekaClientConfig clientConfig,
+                                                                    RegistryCache registryCache) {
+        return new PushEurekaReactiveDiscoveryClient(eurekaClient, clientConfig, registryCache);
+    }
+}
@@ -0,0 +1,146 @@
+package ma.enset.commons.discovery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Follows the {@code /registry/changes} stream of discovery-service and applies it to the
+ * {@link RegistryCache}. Every applied change is announced as a {@link HeartbeatEvent}, like a
+ * Eureka registry fetch, so discovery-driven components refresh immediately.
+ */
+@Slf4j
+public class RegistryStreamSubscriber implements DisposableBean {
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private final RegistryCache registryCache;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final URI changesUri;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private volatile Thread connection;
+    private volatile boolean running = true;
+
+    public RegistryStreamSubscriber(RegistryCache registryCache, ObjectMapper objectMapper,
+                                    ApplicationEventPublisher applicationEventPublisher, String discoveryUri) {
+        this.registryCache = registryCache;
+        this.objectMapper = objectMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.changesUri = URI.create(discoveryUri + "/registry/changes");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        connection = Thread.ofVirtual().name("registry-changes").start(this::follow);
+    }
+
+    private void follow() {
+        try {
+            while (running) {
+                try {
+                    stream();
+                } catch (IOException e) {
+                    log.debug("Registry change stream interrupted: {}", e.getMessage());
+                } finally {
+                    registryCache.disconnected();
+                }
+                Thread.sleep(RECONNECT_DELAY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stream() throws IOException, InterruptedException {
+        HttpResponse<Stream<String>> response = httpClient.send(HttpRequest.newBuilder(changesUri)
+                .header("Accept", "text/event-stream")
+                .build(), HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Unexpected status " + response.statusCode());
+        }
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> iterator = lines.iterator();
+            while (running && iterator.hasNext()) {
+                String line = iterator.next();
+                registryCache.heard();
+                if (line.startsWith("event:")) {
+                    event = line.substring(6).strip();
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring(5).strip());
+                } else if (line.isEmpty() && !data.isEmpty()) {
+                    apply(event, objectMapper.readTree(data.toString()));
+                    event = null;
+                    data.setLength(0);
+                }
+            }
+        }
+    }
+
+    private void apply(String event, JsonNode data) {
+        long sequence = data.path("sequence").asLong();
+        if ("snapshot".equals(event)) {
+            List<ServiceInstance> instances = new ArrayList<>();
+            for (JsonNode instance : data.path("instances")) {
+                if (isUp(instance)) {
+                    instances.add(toServiceInstance(instance));
+                }
+            }
+            registryCache.replace(sequence, instances);
+            log.info("Registry snapshot {} with {} instances", sequence, instances.size());
+        } else if ("REGISTERED".equals(data.path("action").asText())) {
+            JsonNode instance = data.path("instance");
+            registryCache.register(sequence, toServiceInstance(instance), isUp(instance));
+        } else {
+            registryCache.cancel(sequence, data.path("serviceId").asText(), data.path("instanceId").asText());
+        }
+        applicationEventPublisher.publishEvent(new HeartbeatEvent(this, sequence));
+    }
+
+    private static boolean isUp(JsonNode instance) {
+        return "UP".equals(instance.path("status").asText());
+    }
+
+    private ServiceInstance toServiceInstance(JsonNode instance) {
+        Map<String, String> metadata = objectMapper.convertValue(instance.path("metadata"),
+                objectMapper.getTypeFactory().constructMapType(Map.class, String.class, String.class));
+        return new DefaultServiceInstance(
+                instance.path("instanceId").asText(),
+                instance.path("serviceId").asText(),
+                instance.path("host").asText(),
+                instance.path("port").asInt(),
+                instance.path("secure").asBoolean(),
+                metadata);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (connection != null) {
+            connection.interrupt();
+        }
+    }
+}
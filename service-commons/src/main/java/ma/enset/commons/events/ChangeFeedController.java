@@ -0,0 +1,42 @@
+package ma.enset.commons.events;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Streams committed entity changes as server-sent events. Reconnecting clients send the standard
+ * {@code Last-Event-ID} header and receive whatever they missed that is still retained by the broker;
+ * a client that falls too far behind is disconnected the same way.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ChangeFeedController {
+    private final EntityChangeBroker entityChangeBroker;
+
+    @GetMapping(path = "/events/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(name = "Last-Event-ID", defaultValue = "0") long lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        EntityChangeBroker.Subscription subscription = entityChangeBroker.subscribe(lastEventId, event -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSequence()))
+                        .name(event.getEntityType())
+                        .data(event, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }, emitter::complete);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+}
@@ -0,0 +1,24 @@
+package ma.enset.commons.events;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport for committed entity changes. The default implementation is {@link InMemoryEntityChangeBroker};
+ * declaring another bean of this type (Kafka, RabbitMQ, ...) replaces it.
+ */
+public interface EntityChangeBroker {
+
+    void publish(EntityChangeEvent event);
+
+    /**
+     * Replays the retained events with a sequence greater than {@code afterSequence}, then delivers
+     * new events in order until the returned subscription is closed. A subscriber too slow to keep up
+     * is dropped, and {@code onOverflow} is called so that it can reconnect.
+     */
+    Subscription subscribe(long afterSequence, Consumer<EntityChangeEvent> subscriber, Runnable onOverflow);
+
+    interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
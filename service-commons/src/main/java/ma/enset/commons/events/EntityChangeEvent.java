@@ -0,0 +1,38 @@
+package ma.enset.commons.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityChangeEvent {
+    /**
+     * Assigned by the broker, strictly increasing per publishing instance.
+     */
+    private long sequence;
+    private String entityType;
+    private String entityId;
+    private ChangeType changeType;
+    private Instant timestamp;
+    private Object payload;
+
+    public enum ChangeType {
+        SAVED, DELETED
+    }
+
+    public static EntityChangeEvent of(String entityType, Object entityId, ChangeType changeType, Object payload) {
+        return EntityChangeEvent.builder()
+                .entityType(entityType)
+                .entityId(String.valueOf(entityId))
+                .changeType(changeType)
+                .timestamp(Instant.now())
+                .payload(payload)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package ma.enset.commons.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes entity changes for the change feed. The entity is copied into a JSON tree when the change is
+ * published: the broker keeps events for replay and serializes them later, and must not see what happens to
+ * the instance afterwards.
+ */
+@Component
+public class EntityChangePublisher {
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Uses the application's {@link ObjectMapper}, or a default one in test slices without it.
+     */
+    public EntityChangePublisher(ApplicationEventPublisher applicationEventPublisher,
+                                 ObjectProvider<ObjectMapper> objectMapper) {
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper.getIfAvailable(ObjectMapper::new);
+    }
+
+    public void saved(String entityType, Object entityId, Object entity) {
+        applicationEventPublisher.publishEvent(EntityChangeEvent.of(entityType, entityId,
+                EntityChangeEvent.ChangeType.SAVED, objectMapper.valueToTree(entity)));
+    }
+
+    public void deleted(String entityType, Object entityId) {
+        applicationEventPublisher.publishEvent(EntityChangeEvent.of(entityType, entityId,
+                EntityChangeEvent.ChangeType.DELETED, null));
+    }
+}
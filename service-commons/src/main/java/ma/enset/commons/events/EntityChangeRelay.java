@@ -0,0 +1,20 @@
+package ma.enset.commons.events;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards change events to the broker once the surrounding transaction has committed,
+ * so consumers never observe rolled-back state.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeRelay {
+    private final EntityChangeBroker entityChangeBroker;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void relay(EntityChangeEvent event) {
+        entityChangeBroker.publish(event);
+    }
+}
@@ -0,0 +1,23 @@
+package ma.enset.commons.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Change feed of a service publishing {@link EntityChangeEvent}s, enabled by importing this configuration:
+ * the publisher, the broker, the relay forwarding committed changes to it and the {@code /events/changes} endpoint.
+ */
+@Configuration
+@Import({EntityChangePublisher.class, EntityChangeRelay.class, ChangeFeedController.class})
+public class EventsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(EntityChangeBroker.class)
+    EntityChangeBroker entityChangeBroker(@Value("${events.replay-capacity:1024}") int replayCapacity,
+                                          @Value("${events.subscriber-queue-capacity:1024}") int queueCapacity) {
+        return new InMemoryEntityChangeBroker(replayCapacity, queueCapacity);
+    }
+}
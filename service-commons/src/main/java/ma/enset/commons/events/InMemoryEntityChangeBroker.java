@@ -0,0 +1,119 @@
+package ma.enset.commons.events;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-instance broker keeping the last {@code capacity} events for replay. Every subscriber gets a
+ * bounded queue drained in sequence order by its own virtual thread, so publishing never waits on a
+ * subscriber. A subscriber whose queue is full is disconnected and must resubscribe from the last
+ * sequence it received.
+ */
+@Slf4j
+public class InMemoryEntityChangeBroker implements EntityChangeBroker {
+    private final int capacity;
+    private final int queueCapacity;
+    private final Deque<EntityChangeEvent> retained = new ArrayDeque<>();
+    private final List<QueuedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    public InMemoryEntityChangeBroker(int capacity, int queueCapacity) {
+        this.capacity = capacity;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Only numbers, retains and enqueues the event under the lock, which keeps queues in sequence order;
+     * subscribers are called from their own threads.
+     */
+    @Override
+    public synchronized void publish(EntityChangeEvent event) {
+        EntityChangeEvent sequenced = event.toBuilder().sequence(++sequence).build();
+        if (retained.size() == capacity) {
+            retained.removeFirst();
+        }
+        retained.addLast(sequenced);
+        subscriptions.forEach(subscription -> subscription.offer(sequenced));
+    }
+
+    @Override
+    public synchronized Subscription subscribe(long afterSequence, Consumer<EntityChangeEvent> subscriber,
+                                               Runnable onOverflow) {
+        QueuedSubscription subscription = new QueuedSubscription(subscriber, onOverflow);
+        retained.stream()
+                .filter(event -> event.getSequence() > afterSequence)
+                .forEach(subscription::offer);
+        if (!subscription.overflowed) {
+            subscriptions.add(subscription);
+        }
+        subscription.start();
+        return subscription;
+    }
+
+    private final class QueuedSubscription implements Subscription {
+        private final Consumer<EntityChangeEvent> subscriber;
+        private final Runnable onOverflow;
+        private final BlockingQueue<EntityChangeEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+        private volatile Thread sender;
+
+        private QueuedSubscription(Consumer<EntityChangeEvent> subscriber, Runnable onOverflow) {
+            this.subscriber = subscriber;
+            this.onOverflow = onOverflow;
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("change-feed-subscriber").start(this::drain);
+        }
+
+        private void offer(EntityChangeEvent event) {
+            if (!overflowed && !queue.offer(event)) {
+                log.warn("Change feed subscriber fell {} events behind, disconnecting it", queueCapacity);
+                overflowed = true;
+                subscriptions.remove(this);
+                queue.clear();
+                if (sender != null) {
+                    sender.interrupt();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed && !overflowed) {
+                    deliver(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (overflowed && !closed) {
+                onOverflow.run();
+            }
+        }
+
+        private void deliver(EntityChangeEvent event) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Error delivering change event {}: {}", event.getSequence(), e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            if (sender != null && sender != Thread.currentThread()) {
+                sender.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ma.enset.commons.observability;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-hop latency instrumentation. HTTP server, Feign client and gateway route calls are observed by Spring
+ * Boot; this adds the in-process buffer spans are exported to, its {@code spans} endpoint and, in services
+ * with Spring Data repositories, one observation per repository call. Imported by each service.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    @Bean
+    RecentSpansExporter recentSpansExporter(@Value("${observability.spans.capacity:2048}") int capacity) {
+        return new RecentSpansExporter(capacity);
+    }
+
+    @Bean
+    SpansEndpoint spansEndpoint(RecentSpansExporter recentSpansExporter) {
+        return new SpansEndpoint(recentSpansExporter);
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport")
+    static class RepositoryObservationConfig {
+
+        @Bean
+        @ConditionalOnProperty(prefix = "observability.repositories", name = "enabled", havingValue = "true", matchIfMissing = true)
+        static RepositoryObservationPostProcessor repositoryObservationPostProcessor(
+                ObjectProvider<ObservationRegistry> observationRegistry
+        ) {
+            return new RepositoryObservationPostProcessor(observationRegistry);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ma.enset.commons.observability;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In-process span exporter keeping the last {@code capacity} finished spans, so traces can be inspected
+ * through {@code /actuator/spans} without any tracing backend.
+ */
+public class RecentSpansExporter implements SpanExporter {
+    private final int capacity;
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    public RecentSpansExporter(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == capacity) {
+                spans.removeFirst();
+            }
+            spans.addLast(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public synchronized List<SpanData> recent() {
+        return List.copyOf(spans);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,54 @@
+package ma.enset.commons.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Wraps every Spring Data repository method in a {@code repository.invocation} observation, giving
+ * one timer per repository and method and one span per call.
+ */
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+    private volatile ObservationRegistry registry;
+
+    public RepositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(
+                            interceptor(information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private MethodInterceptor interceptor(String repository) {
+        return invocation -> {
+            String method = invocation.getMethod().getName();
+            return Observation.createNotStarted("repository.invocation", registry())
+                    .contextualName(repository + "#" + method)
+                    .lowCardinalityKeyValue("repository", repository)
+                    .lowCardinalityKeyValue("method", method)
+                    .observeChecked(invocation::proceed);
+        };
+    }
+
+    /**
+     * Resolved on first use: repositories are created before the registry's handlers are available.
+     */
+    private ObservationRegistry registry() {
+        ObservationRegistry current = registry;
+        if (current == null) {
+            current = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+            registry = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,53 @@
+package ma.enset.commons.observability;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/spans}: recently finished spans of this instance grouped by trace id, and
+ * {@code /actuator/spans/{traceId}} for a single trace.
+ */
+@Endpoint(id = "spans")
+public class SpansEndpoint {
+    private final RecentSpansExporter exporter;
+
+    public SpansEndpoint(RecentSpansExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public Map<String, List<Map<String, Object>>> traces() {
+        return exporter.recent().stream()
+                .collect(Collectors.groupingBy(SpanData::getTraceId, LinkedHashMap::new,
+                        Collectors.mapping(SpansEndpoint::describe, Collectors.toList())));
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> trace(@Selector String traceId) {
+        return exporter.recent().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .map(SpansEndpoint::describe)
+                .toList();
+    }
+
+    private static Map<String, Object> describe(SpanData span) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("spanId", span.getSpanId());
+        description.put("parentSpanId", span.getParentSpanId());
+        description.put("name", span.getName());
+        description.put("kind", span.getKind());
+        description.put("durationMicros",
+                TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        description.put("attributes", span.getAttributes().asMap().entrySet().stream()
+                .collect(Collectors.toMap(e -> e.getKey().getKey(), e -> String.valueOf(e.getValue()))));
+        return description;
+    }
+}
@@ -0,0 +1,91 @@
+package ma.enset.commons.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(
+                embedded("primary"), Map.of("replica-0", embedded("replica-0")), meterRegistry);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private static DataSource embedded(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(32))");
+        jdbcTemplate.execute("DELETE FROM origin");
+        jdbcTemplate.update("INSERT INTO origin VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String origin(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM origin", String.class));
+    }
+
+    private double routed(String route) {
+        return meterRegistry.get("datasource.routing.connections").tag("route", route).counter().count();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        double before = routed("read");
+        assertThat(origin(readOnly)).isEqualTo("replica-0");
+        assertThat(routed("read") - before).isEqualTo(1);
+    }
+
+    @Test
+    void readWriteTransactionsGoToPrimary() {
+        assertThat(origin(readWrite)).isEqualTo("primary");
+        assertThat(routed("read")).isZero();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        routingDataSource.markLagging("replica-0", true);
+        double before = routed("fallback");
+        assertThat(origin(readOnly)).isEqualTo("primary");
+        assertThat(routed("fallback") - before).isEqualTo(1);
+
+        routingDataSource.markLagging("replica-0", false);
+        assertThat(origin(readOnly)).isEqualTo("replica-0");
+    }
+
+    @Test
+    void lagMonitorTakesLaggingReplicaOutOfRotation() {
+        RoutingDataSourceProperties properties = new RoutingDataSourceProperties();
+        properties.setLagQuery("SELECT 60");
+        new ReplicaLagMonitor(routingDataSource, properties, meterRegistry).checkReplicas();
+        assertThat(origin(readOnly)).isEqualTo("primary");
+
+        properties.setLagQuery("SELECT 0");
+        new ReplicaLagMonitor(routingDataSource, properties, new SimpleMeterRegistry()).checkReplicas();
+        assertThat(origin(readOnly)).isEqualTo("replica-0");
+    }
+}
@@ -0,0 +1,165 @@
+package ma.enset.commons.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.EurekaClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Client half of registry push: a fake {@code /registry/changes} stream feeds a {@link RegistryStreamSubscriber},
+ * and the {@link RegistryCache} behind {@link PushEurekaDiscoveryClient} must follow it for several
+ * instances, then fall back to Eureka once the stream is gone.
+ */
+class RegistryStreamSubscriberTests {
+    private static final String SERVICE = "inventory-service";
+    private static final int INSTANCES = 5;
+    private static final String CLOSE = "";
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private final BlockingQueue<HeartbeatEvent> heartbeats = new LinkedBlockingQueue<>();
+    private final EurekaClient eurekaClient = mock(EurekaClient.class);
+    private final RegistryCache registryCache = new RegistryCache(Duration.ofSeconds(15));
+    private final PushEurekaDiscoveryClient discoveryClient =
+            new PushEurekaDiscoveryClient(eurekaClient, mock(EurekaClientConfig.class), registryCache);
+    private HttpServer server;
+    private RegistryStreamSubscriber subscriber;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/registry/changes", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (String event = events.take(); !CLOSE.equals(event); event = events.take()) {
+                    body.write(event.getBytes(StandardCharsets.UTF_8));
+                    body.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        subscriber = new RegistryStreamSubscriber(registryCache, new ObjectMapper(),
+                event -> heartbeats.add((HeartbeatEvent) event),
+                "http://localhost:" + server.getAddress().getPort());
+        subscriber.start();
+    }
+
+    @AfterEach
+    void stop() {
+        subscriber.destroy();
+        events.add(CLOSE);
+        server.stop(0);
+    }
+
+    private static String instance(String instanceId, String status) {
+        return """
+                {"serviceId":"%s","instanceId":"%s","host":"localhost","port":8083,"secure":false,"status":"%s","metadata":{}}"""
+                .formatted(SERVICE, instanceId, status);
+    }
+
+    private static String event(String name, String data) {
+        return "event:" + name + "\ndata:" + data + "\n\n";
+    }
+
+    private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", timeout).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private List<String> instanceIds() {
+        return discoveryClient.getInstances(SERVICE).stream().map(ServiceInstance::getInstanceId).toList();
+    }
+
+    @Test
+    void cacheFollowsTheStreamForSeveralInstances() throws InterruptedException {
+        assertThat(registryCache.isLive()).isFalse();
+        events.add(event("snapshot", """
+                {"sequence":1,"instances":[%s,%s]}""".formatted(instance("up", "UP"), instance("down", "DOWN"))));
+        await(registryCache::isLive, Duration.ofSeconds(5));
+        assertThat(instanceIds()).containsExactly("up");
+
+        List<Long> registerMillis = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            String instanceId = "instance-" + i;
+            long start = System.nanoTime();
+            events.add(event("delta", """
+                    {"sequence":%d,"action":"REGISTERED","serviceId":"%s","instanceId":"%s","instance":%s}"""
+                    .formatted(i + 2, SERVICE, instanceId, instance(instanceId, "UP"))));
+            await(() -> instanceIds().contains(instanceId), Duration.ofSeconds(5));
+            registerMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        assertThat(instanceIds()).hasSize(INSTANCES + 1);
+
+        List<Long> cancelMillis = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            String instanceId = "instance-" + i;
+            long start = System.nanoTime();
+            events.add(event("delta", """
+                    {"sequence":%d,"action":"CANCELLED","serviceId":"%s","instanceId":"%s"}"""
+                    .formatted(i + 2 + INSTANCES, SERVICE, instanceId)));
+            await(() -> !instanceIds().contains(instanceId), Duration.ofSeconds(5));
+            cancelMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        assertThat(registerMillis).as("register propagation ms").allMatch(millis -> millis < 500);
+        assertThat(cancelMillis).as("cancel propagation ms").allMatch(millis -> millis < 500);
+        assertThat(instanceIds()).containsExactly("up");
+        assertThat(registryCache.getSequence()).isEqualTo(1 + 2L * INSTANCES);
+        assertThat(heartbeats).hasSize(1 + 2 * INSTANCES);
+        verify(eurekaClient, never()).getInstancesByVipAddress(SERVICE, false);
+    }
+
+    @Test
+    void fallsBackToEurekaWhenTheStreamEnds() throws InterruptedException {
+        events.add(event("snapshot", """
+                {"sequence":1,"instances":[%s]}""".formatted(instance("up", "UP"))));
+        await(registryCache::isLive, Duration.ofSeconds(5));
+
+        events.add(CLOSE);
+        await(() -> !registryCache.isLive(), Duration.ofSeconds(5));
+
+        assertThat(discoveryClient.getInstances(SERVICE)).isEmpty();
+        verify(eurekaClient).getInstancesByVipAddress(SERVICE, false);
+    }
+
+    @Test
+    void cacheGoesStaleWhenTheStreamFallsSilent() throws InterruptedException {
+        RegistryCache cache = new RegistryCache(Duration.ofMillis(50));
+        cache.replace(1, List.of());
+        assertThat(cache.isLive()).isTrue();
+
+        Thread.sleep(100);
+        assertThat(cache.isLive()).isFalse();
+        cache.heard();
+        assertThat(cache.isLive()).isTrue();
+        cache.disconnected();
+        assertThat(cache.isLive()).isFalse();
+    }
+}
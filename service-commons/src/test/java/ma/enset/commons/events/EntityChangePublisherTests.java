@@ -0,0 +1,40 @@
+package ma.enset.commons.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityChangePublisherTests {
+
+    static class Item {
+        public String name;
+        public int quantity;
+
+        Item(String name, int quantity) {
+            this.name = name;
+            this.quantity = quantity;
+        }
+    }
+
+    @Test
+    void eventsKeepTheEntityAsItWasWhenPublished() {
+        List<EntityChangeEvent> published = new ArrayList<>();
+        EntityChangePublisher publisher = new EntityChangePublisher(
+                event -> published.add((EntityChangeEvent) event),
+                new DefaultListableBeanFactory().getBeanProvider(ObjectMapper.class));
+        Item desk = new Item("Desk", 10);
+
+        publisher.saved("Item", 1, desk);
+        desk.quantity = 6;
+        publisher.saved("Item", 1, desk);
+
+        assertThat(published).extracting(event -> ((JsonNode) event.getPayload()).get("quantity").asInt())
+                .containsExactly(10, 6);
+    }
+}
@@ -0,0 +1,97 @@
+package ma.enset.commons.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryEntityChangeBrokerTests {
+
+    private static EntityChangeEvent saved(String id) {
+        return EntityChangeEvent.of("Product", id, EntityChangeEvent.ChangeType.SAVED, null);
+    }
+
+    private static List<EntityChangeEvent> take(BlockingQueue<EntityChangeEvent> received, int count)
+            throws InterruptedException {
+        List<EntityChangeEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EntityChangeEvent event = received.poll(5, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            events.add(event);
+        }
+        return events;
+    }
+
+    @Test
+    void deliversEventsInSequenceOrder() throws InterruptedException {
+        InMemoryEntityChangeBroker broker = new InMemoryEntityChangeBroker(16, 16);
+        BlockingQueue<EntityChangeEvent> received = new LinkedBlockingQueue<>();
+        broker.subscribe(0, received::add, () -> { });
+
+        broker.publish(saved("a"));
+        broker.publish(saved("b"));
+
+        List<EntityChangeEvent> events = take(received, 2);
+        assertThat(events).extracting(EntityChangeEvent::getSequence).containsExactly(1L, 2L);
+        assertThat(events).extracting(EntityChangeEvent::getEntityId).containsExactly("a", "b");
+    }
+
+    @Test
+    void replaysRetainedEventsAfterLastSeenSequence() throws InterruptedException {
+        InMemoryEntityChangeBroker broker = new InMemoryEntityChangeBroker(2, 16);
+        broker.publish(saved("a"));
+        broker.publish(saved("b"));
+        broker.publish(saved("c"));
+
+        BlockingQueue<EntityChangeEvent> received = new LinkedBlockingQueue<>();
+        broker.subscribe(0, received::add, () -> { });
+        assertThat(take(received, 2)).extracting(EntityChangeEvent::getEntityId).containsExactly("b", "c");
+
+        BlockingQueue<EntityChangeEvent> resumed = new LinkedBlockingQueue<>();
+        broker.subscribe(2, resumed::add, () -> { });
+        assertThat(take(resumed, 1)).extracting(EntityChangeEvent::getEntityId).containsExactly("c");
+    }
+
+    @Test
+    void closedSubscriptionStopsDelivery() throws InterruptedException {
+        InMemoryEntityChangeBroker broker = new InMemoryEntityChangeBroker(16, 16);
+        BlockingQueue<EntityChangeEvent> received = new LinkedBlockingQueue<>();
+        EntityChangeBroker.Subscription subscription = broker.subscribe(0, received::add, () -> { });
+
+        subscription.close();
+        broker.publish(saved("a"));
+
+        assertThat(received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void stalledSubscriberIsDroppedWithoutBlockingPublishersOrOtherSubscribers() throws InterruptedException {
+        InMemoryEntityChangeBroker broker = new InMemoryEntityChangeBroker(16, 4);
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch overflowed = new CountDownLatch(1);
+        broker.subscribe(0, event -> {
+            try {
+                stalled.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, overflowed::countDown);
+        BlockingQueue<EntityChangeEvent> received = new LinkedBlockingQueue<>();
+        broker.subscribe(0, received::add, () -> { });
+
+        for (int i = 1; i <= 10; i++) {
+            long start = System.nanoTime();
+            broker.publish(saved("p" + i));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+            assertThat(take(received, 1)).extracting(EntityChangeEvent::getSequence).containsExactly((long) i);
+        }
+        assertThat(overflowed.await(5, TimeUnit.SECONDS)).isTrue();
+        stalled.countDown();
+    }
+}
@@ -0,0 +1,19 @@
+package ma.enset.commons.observability;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@NoArgsConstructor
+@Getter
+@Setter
+public class Item {
+    @Id
+    @GeneratedValue
+    private Long id;
+    private String name;
+}
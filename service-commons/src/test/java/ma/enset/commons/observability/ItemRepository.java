@@ -0,0 +1,6 @@
+package ma.enset.commons.observability;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ItemRepository extends JpaRepository<Item, Long> {
+}
@@ -0,0 +1,75 @@
+package ma.enset.commons.observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class RepositoryObservationPostProcessorTests {
+
+    /**
+     * Imports ObservabilityConfig the way the services do, with {@link ItemRepository} as the repository.
+     */
+    @Configuration
+    @AutoConfigurationPackage
+    @Import(ObservabilityConfig.class)
+    static class ObservedRepositories {
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+
+        @Bean
+        ObservationRegistry observationRegistry(RecordingHandler recordingHandler) {
+            ObservationRegistry registry = ObservationRegistry.create();
+            registry.observationConfig().observationHandler(recordingHandler);
+            return registry;
+        }
+    }
+
+    static class RecordingHandler implements ObservationHandler<Observation.Context> {
+        final List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onStop(Observation.Context context) {
+            stopped.add(context);
+        }
+
+        @Override
+        public boolean supportsContext(Observation.Context context) {
+            return true;
+        }
+    }
+
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    RecordingHandler recordingHandler;
+
+    @Test
+    void recordsOneObservationPerRepositoryCall() {
+        recordingHandler.stopped.clear();
+
+        itemRepository.count();
+
+        assertThat(recordingHandler.stopped).singleElement().satisfies(context -> {
+            assertThat(context.getName()).isEqualTo("repository.invocation");
+            assertThat(context.getContextualName()).isEqualTo("ItemRepository#count");
+            assertThat(context.getLowCardinalityKeyValues())
+                    .contains(KeyValue.of("repository", "ItemRepository"), KeyValue.of("method", "count"));
+        });
+    }
+}
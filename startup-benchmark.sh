@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Measures how long each service takes to report "Started ..." in plain JVM, AOT and AOT+CDS mode.
+#
+# Build the artifacts first, in every module, with the same flags the runs use:
+#   ./mvnw -Paot,cds -DskipTests package -Daot.jvm-arguments="-Deureka.client.enabled=false -Devents.feed.enabled=false"
+# Then:  ./startup-benchmark.sh
+#
+# RUNS (default 5) and MODULES can be overridden from the environment. Eureka registration, the change
+# feed and demo data seeding are disabled so that only the startup path itself is measured. Spring AOT
+# evaluates bean conditions at build time, so -Deureka.client.enabled and -Devents.feed.enabled below
+# only take effect in the aot and aot+cds columns if the artifacts were processed with them as above;
+# otherwise those columns start more beans than the jvm column. Seeding is checked at runtime.
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+MODULES=${MODULES:-"discovery-service config-service customer-service inventory-service billing-service gateway-service"}
+TIMEOUT=${TIMEOUT:-60}
+ROOT=$(cd "$(dirname "$0")" && pwd)
+
+COMMON_ARGS=(
+  -Dserver.port=0
+  -Deureka.client.enabled=false
+  -Dspring.cloud.refresh.enabled=false
+  -Dapp.seed.enabled=false
+  -Devents.feed.enabled=false
+)
+
+# Prints the "process running for" seconds of a single start, or "-" when it did not start in time.
+measure() {
+  local dir=$1
+  shift
+  local log
+  log=$(mktemp)
+  (cd "$dir" && exec java "${COMMON_ARGS[@]}" "$@") >"$log" 2>&1 &
+  local pid=$!
+  local result="-"
+  for _ in $(seq $((TIMEOUT * 10))); do
+    if line=$(grep -m1 -E 'Started .* in [0-9.]+ seconds' "$log"); then
+      result=$(sed -E 's/.*process running for ([0-9.]+).*/\1/' <<<"$line")
+      break
+    fi
+    kill -0 "$pid" 2>/dev/null || break
+    sleep 0.1
+  done
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+  echo "$result"
+}
+
+# Prints the median of the given samples, ignoring failed runs.
+median() {
+  printf '%s\n' "$@" | grep -v '^-$' | sort -n | awk '{ a[NR] = $1 } END { print (NR ? a[int((NR + 1) / 2)] : "-") }'
+}
+
+printf '%-20s %10s %10s %10s\n' module jvm aot aot+cds
+for module in $MODULES; do
+  target="$ROOT/$module/target"
+  jar="$target/$module-0.0.1-SNAPSHOT.jar"
+  if [[ ! -f "$jar" ]]; then
+    printf '%-20s %10s\n' "$module" "not built"
+    continue
+  fi
+  jvm=() aot=() cds=()
+  for _ in $(seq "$RUNS"); do
+    jvm+=("$(measure "$target" -jar "$jar")")
+    aot+=("$(measure "$target" -Dspring.aot.enabled=true -jar "$jar")")
+    if [[ -f "$target/cds/application.jsa" ]]; then
+      cds+=("$(measure "$target/cds" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+        -jar "$(basename "$jar")")")
+    else
+      cds+=("-")
+    fi
+  done
+  printf '%-20s %10s %10s %10s\n' "$module" "$(median "${jvm[@]}")" "$(median "${aot[@]}")" "$(median "${cds[@]}")"
+done